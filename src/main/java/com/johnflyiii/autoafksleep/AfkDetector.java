@@ -0,0 +1,83 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Input-idle AFK detector that gates all automation.
+ *
+ * Tracks the last real keyboard, mouse and movement input and flips into AFK
+ * state after the configured idle period. The result (combined with the mod
+ * enable switch) is kept in a single field so the per-tick and per-message
+ * handlers can bail out with one read while someone is actively playing.
+ *
+ * All state lives on the client thread, like {@link AfkRenderMode}.
+ */
+public final class AfkDetector {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-afk");
+
+    private static boolean afk = false;
+    private static boolean idle = false;
+    private static long lastInputMillis = System.currentTimeMillis();
+
+    private AfkDetector() {}
+
+    /**
+     * Called by the input mixin for every keyboard and mouse event.
+     */
+    public static void onUserInput() {
+        lastInputMillis = System.currentTimeMillis();
+        // Rendering has to come back within the same frame, automation can wait for the next tick
+        AfkRenderMode.onUserInput();
+    }
+
+    /**
+     * Updates the AFK state. Must run before any gated handler in the tick.
+     * @return true if the AFK state changed this tick
+     */
+    public static boolean tick(MinecraftClient client, ModConfig config) {
+        ClientPlayerEntity player = client.player;
+        if (player != null && player.input != null
+                && (player.input.getMovementInput().lengthSquared() > 0 || player.input.playerInput.jump())) {
+            // Movement that didn't come through the keyboard (controllers, other mods)
+            lastInputMillis = System.currentTimeMillis();
+        }
+
+        // Real input idle, independent of the detection switch that only bypasses the automation gate
+        idle = config.modEnabled && player != null && getIdleMillis() >= config.afkIdleSeconds * 1000L;
+        boolean nowAfk = config.modEnabled && player != null && (!config.afkDetectionEnabled || idle);
+
+        if (nowAfk == afk) {
+            return false;
+        }
+        afk = nowAfk;
+        if (afk) {
+            LOGGER.info("No input for {} seconds - AFK automation active", getIdleMillis() / 1000);
+        } else if (config.modEnabled && player != null) {
+            LOGGER.info("Player is back - AFK automation paused");
+        }
+        return true;
+    }
+
+    /**
+     * True when the mod is enabled and the player is AFK (or detection is off).
+     */
+    public static boolean isAfk() {
+        return afk;
+    }
+
+    /**
+     * True when the mod is enabled and there really was no input for the idle
+     * period, even with detection turned off. Drives the rendering and
+     * resource savings, which must never kick in while someone is playing.
+     */
+    public static boolean isIdle() {
+        return idle;
+    }
+
+    public static long getIdleMillis() {
+        return System.currentTimeMillis() - lastInputMillis;
+    }
+}
@@ -0,0 +1,65 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.client.MinecraftClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Low-power render mode for unattended clients.
+ *
+ * Activates once {@link AfkDetector} reports the player idle (or shortly after
+ * the player falls asleep without touching anything) and makes the render mixins cap the frame rate and skip world
+ * rendering. Ticking, networking, AutoEat and chat handling are unaffected.
+ * Any keyboard or mouse input switches normal rendering back on immediately.
+ *
+ * All state is touched from the render thread only (input callbacks, client
+ * tick and frame rendering all run there), so no synchronization is needed.
+ */
+public final class AfkRenderMode {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-render");
+
+    // Grace period after input before a sleeping player drops to low-power rendering
+    private static final long SLEEPING_GRACE_MILLIS = 2000;
+
+    private static boolean active = false;
+    private static int frameRateLimit = 5;
+
+    private AfkRenderMode() {}
+
+    /**
+     * Called by {@link AfkDetector} for every keyboard and mouse event.
+     */
+    public static void onUserInput() {
+        if (active) {
+            active = false;
+            LOGGER.info("Input detected, restoring normal rendering");
+        }
+    }
+
+    public static void tick(MinecraftClient client, ModConfig config) {
+        boolean shouldBeActive = false;
+
+        if (config.afkRenderModeEnabled && client.player != null && client.world != null) {
+            shouldBeActive = AfkDetector.isIdle()
+                || (config.modEnabled && client.player.isSleeping() && AfkDetector.getIdleMillis() >= SLEEPING_GRACE_MILLIS);
+        }
+
+        frameRateLimit = config.afkRenderMaxFps;
+        if (shouldBeActive != active) {
+            active = shouldBeActive;
+            if (active) {
+                LOGGER.info("Entering low-power AFK rendering ({} FPS, world rendering skipped)", frameRateLimit);
+            } else {
+                LOGGER.info("Leaving low-power AFK rendering");
+            }
+        }
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    public static int getFrameRateLimit() {
+        return frameRateLimit;
+    }
+}
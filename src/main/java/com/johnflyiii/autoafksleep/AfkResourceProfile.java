@@ -0,0 +1,136 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.option.GameOptions;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AFK resource profile - lowers view/simulation distance while the night
+ * scheduler is idle and the player is AFK, and optionally stops
+ * client-side ticking (movement interpolation) of entities far from the bed.
+ * The user's own distances are restored as soon as input returns, and the
+ * profile comes back on the tick the player goes idle again, without waiting
+ * for the scheduler's next decision.
+ *
+ * Like {@link AfkRenderMode} all state lives on the client thread.
+ */
+public final class AfkResourceProfile {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-profile");
+
+    // Anchor only counts as "the bed" while the player is still next to it
+    private static final double MAX_BED_ANCHOR_DISTANCE_SQ = 8 * 8;
+
+    private static boolean applied = false;
+    private static boolean schedulerIdle = false; // The scheduler settled into a long wait on this world
+    private static BlockPos schedulerBedPos;
+    private static int savedViewDistance;
+    private static int savedSimulationDistance;
+
+    // Entity tick filter, read by ClientWorldMixin for every entity tick
+    private static boolean skipFarEntities = false;
+    private static double anchorX, anchorY, anchorZ;
+    private static double entityRadiusSq;
+
+    private AfkResourceProfile() {}
+
+    /**
+     * Called by the scheduler whenever it settles into a long wait (day time or
+     * another dimension). Only applies while {@link AfkDetector} reports real
+     * input idle, so it stays off with AFK detection disabled and the player
+     * active; {@link #tick} applies it once the player goes idle.
+     */
+    public static void onSchedulerIdle(MinecraftClient client, ModConfig config, BlockPos bedPos) {
+        schedulerIdle = true;
+        schedulerBedPos = bedPos;
+        apply(client, config);
+    }
+
+    private static void apply(MinecraftClient client, ModConfig config) {
+        BlockPos bedPos = schedulerBedPos;
+        if (applied || !config.afkProfileEnabled || !AfkDetector.isIdle() || client.player == null) {
+            return;
+        }
+        GameOptions options = client.options;
+        savedViewDistance = options.getViewDistance().getValue();
+        savedSimulationDistance = options.getSimulationDistance().getValue();
+
+        // Never raise a distance the user already keeps lower
+        options.getViewDistance().setValue(Math.min(savedViewDistance, config.afkViewDistance));
+        options.getSimulationDistance().setValue(Math.min(savedSimulationDistance, config.afkSimulationDistance));
+        options.sendClientSettings();
+
+        if (bedPos != null && client.player.squaredDistanceTo(bedPos.toCenterPos()) <= MAX_BED_ANCHOR_DISTANCE_SQ) {
+            anchorX = bedPos.getX() + 0.5;
+            anchorY = bedPos.getY() + 0.5;
+            anchorZ = bedPos.getZ() + 0.5;
+        } else {
+            anchorX = client.player.getX();
+            anchorY = client.player.getY();
+            anchorZ = client.player.getZ();
+        }
+        entityRadiusSq = (double) config.afkEntityRadius * config.afkEntityRadius;
+        skipFarEntities = config.afkSkipFarEntities;
+        applied = true;
+
+        LOGGER.info("AFK resource profile applied (view distance {} -> {}, simulation distance {} -> {}, far entities {})",
+            savedViewDistance, options.getViewDistance().getValue(),
+            savedSimulationDistance, options.getSimulationDistance().getValue(),
+            skipFarEntities ? "frozen beyond " + config.afkEntityRadius + " blocks" : "ticking");
+    }
+
+    public static void tick(MinecraftClient client, ModConfig config) {
+        if (!applied) {
+            if (schedulerIdle && AfkDetector.isIdle()) {
+                apply(client, config);
+            }
+            return;
+        }
+        if (!AfkDetector.isIdle() || !config.afkProfileEnabled) {
+            restore(client);
+        }
+    }
+
+    /**
+     * Restores the distances and forgets the scheduler state; call when leaving a world.
+     */
+    public static void reset(MinecraftClient client) {
+        schedulerIdle = false;
+        schedulerBedPos = null;
+        restore(client);
+    }
+
+    /**
+     * Restores the user's distances. Safe to call at any time, including on
+     * disconnect and shutdown so reduced values never reach options.txt.
+     */
+    public static void restore(MinecraftClient client) {
+        if (!applied) {
+            return;
+        }
+        applied = false;
+        skipFarEntities = false;
+
+        GameOptions options = client.options;
+        options.getViewDistance().setValue(savedViewDistance);
+        options.getSimulationDistance().setValue(savedSimulationDistance);
+        if (client.getNetworkHandler() != null) {
+            options.sendClientSettings();
+        }
+        LOGGER.info("AFK resource profile restored (view distance {}, simulation distance {})",
+            savedViewDistance, savedSimulationDistance);
+    }
+
+    public static boolean shouldSkipEntityTick(Entity entity) {
+        if (!skipFarEntities || entity == MinecraftClient.getInstance().player) {
+            return false;
+        }
+        return entity.squaredDistanceTo(anchorX, anchorY, anchorZ) > entityRadiusSq;
+    }
+
+    public static boolean isApplied() {
+        return applied;
+    }
+}
@@ -17,21 +17,31 @@
 package com.johnflyiii.autoafksleep;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientWorldEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.rendering.v1.hud.HudElementRegistry;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.authlib.GameProfile;
+import com.google.gson.JsonObject;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
 import org.lwjgl.glfw.GLFW;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
 import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.network.message.MessageType;
 import net.minecraft.text.Text;
+import net.minecraft.text.TranslatableTextContent;
 import net.minecraft.util.Hand;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
@@ -40,16 +50,14 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.block.BedBlock;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.enums.BedPart;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Set;
-import java.util.HashSet;
-import java.util.regex.Pattern;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * AutoAFKSleep - A Minecraft Fabric mod that automatically sleeps when AFK
@@ -68,42 +76,77 @@ public class AutoAFKSleep implements ClientModInitializer {
     public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
     
     private static AutoAFKSleep instance;
-    private ModConfig config;
+    private ModConfig baseConfig; // As saved and edited by commands and the config screen
+    private ModConfig config; // Effective settings for the current server (base plus its profile)
     private AutoEat autoEat;
     private int tickCounter = 0;
     private long lastSleepAttempt = 0;
-    private long lastChatResponse = 0;
+    private final ResponseCooldowns responseCooldowns = new ResponseCooldowns();
+    private final OutboundChatQueue outboundQueue = new OutboundChatQueue();
+    private final RecentMessageCache recentMessages = new RecentMessageCache();
+    private final ChatFloodGuard floodGuard = new ChatFloodGuard();
+    private ResponseTemplate responseTemplate;
+    private final StringBuilder responseBuffer = new StringBuilder(256);
+    private GameProfile responseSender = null; // Sender the response is being rendered for
+    private String pendingDisconnectReason = null;
+    private int pendingDisconnectTicks = 0;
+    private String serverKey = SINGLEPLAYER_KEY;
+    private String chatPlayerName; // Matched as a mention, known once we join
     
     // Time constants
-    private static final int NIGHT_START = 12541;
-    private static final int NIGHT_END = 23458;
-    private static final int DAY_LENGTH = 24000;
+    private static final int DAY_LENGTH = NightWindows.DAY_LENGTH; // The sleepable window is learned per world
     private static final int TICKS_PER_SECOND = 20;
     
     // Fixed timing parameters
-    private static final int CHECK_INTERVAL_OTHER_DIMENSION_TICKS = 6000; // 5 minutes in nether/end
+    private static final int CHECK_INTERVAL_OTHER_DIMENSION_TICKS = 6000; // 5 minutes in nether/end (world changes wake the scheduler)
     
     // State tracking
     private int nextCheckTick = 0;
     private int consecutiveFailures = 0;
     
     // Performance optimizations
-    private final Set<String> sleepKeywords = new HashSet<>();
-    private final Set<String> systemMessagePatterns = new HashSet<>();
-    private Pattern directMessagePattern;
-    private long lastDimensionCheck = 0;
-    private String cachedDimension = null;
+    private ChatKeywords chatKeywords; // Sleep keywords and system patterns for the chat language
+    private ChatMatcher chatMatcher; // Keywords plus disconnect phrase, markers and chat rules, in one automaton
+    private final Map<String, ChatMatcher> compiledMatchers = new HashMap<>(); // Per server, language and player name
+    private final Map<String, ResponseTemplate> compiledTemplates = new HashMap<>(); // Keyed by template text
+    private boolean sleepNowRequested = false; // Set by SLEEP_NOW chat rules
+    private final DimensionTracker dimensionTracker = new DimensionTracker();
     
     // Sleep verification tracking
     private BlockPos pendingSleepPos = null;
+    private FlightEvents.SleepAttempt pendingSleepEvent = null;
     private int sleepVerifyTicks = 0;
     private static final int SLEEP_VERIFY_DELAY = 40; // 2 seconds
+    private BlockPos lastBedPos = null; // Last bed we successfully slept in
+    private NightWindows nightWindows;
+    private long pendingSleepTimeOfDay = 0; // Time of day of the attempt being verified
+    private boolean sleepRejectedForTime = false; // Server said it isn't night yet
+    private boolean sleepProbe = false; // Attempt just before the learned night, failure is expected
+    private boolean stormAttempt = false; // Daytime attempt during a thunderstorm
+    private boolean awaitingBedClaim = false; // Follower waits for the coordination leader to confirm a bed
+    private boolean pendingSleepInStorm = false; // Says nothing about the night window
+    private final SleepQuorum sleepQuorum = new SleepQuorum();
+    private int lastPlayerCount = 0;
+    private long lastProbeDay = -1;
+    private SessionState resumeSession; // Interrupted AFK session to continue on rejoin
+    private final Coordinator coordinator = new Coordinator(); // Other AFK clients on this host
+    private final ControlServer controlServer = new ControlServer(this::applyControlRequest);
+    private int controlSnapshotTicks = 0;
+    private final HudStatusOverlay hudOverlay = new HudStatusOverlay();
+    private int hudTicks = 0;
+    private int perfSampleTicks = 0;
     
     // Interaction constants
     private static final double MAX_INTERACT_DISTANCE = 2.0; // Minecraft's bed interaction distance
     private static final double MAX_INTERACT_DISTANCE_SQ = MAX_INTERACT_DISTANCE * MAX_INTERACT_DISTANCE;
     private static final int BED_SEARCH_RADIUS = 3; // Search slightly beyond reach to find all nearby beds
     
+    // Outbound constants
+    private static final int DISCONNECT_AFTER_GOODBYE_TICKS = 10; // Let the goodbye flush before closing
+    private static final int DISCONNECT_GOODBYE_TIMEOUT_TICKS = 100;
+    private static final String DISCONNECT_INSTRUCTION = "To force me to disconnect say: ";
+    private static final String SINGLEPLAYER_KEY = "singleplayer";
+    
     // Keybinding
     private static KeyBinding configKeyBinding;
     
@@ -113,24 +156,69 @@ public class AutoAFKSleep implements ClientModInitializer {
         LOGGER.info("AutoAFK Sleep mod initializing...");
         
         // Load configuration
-        config = ModConfig.load();
+        baseConfig = ModConfig.load();
+        nightWindows = NightWindows.load();
+        resumeSession = SessionState.load();
         LOGGER.info("Configuration loaded successfully");
         
-        // Initialize performance optimizations
-        initializePatterns();
-        
         // Initialize AutoEat feature
         autoEat = new AutoEat();
-        configureAutoEat();
+        applyConfig();
         
-        // Register tick event
-        ClientTickEvents.END_CLIENT_TICK.register(this::onClientTick);
+        // Register tick events - the AFK detector runs first so every gated handler sees this tick's state
+        ClientTickEvents.END_CLIENT_TICK.register(timed(PerfStats.Subsystem.AFK_DETECTOR, client -> {
+            PerfStats.recordTick();
+            if (AfkDetector.tick(client, config)) {
+                onAfkStateChanged(client, AfkDetector.isAfk());
+            }
+        }));
+        ClientTickEvents.END_CLIENT_TICK.register(timed(PerfStats.Subsystem.AUTO_EAT, client -> {
+            if (AfkDetector.isAfk() && config.autoEatEnabled) {
+                autoEat.tick(client);
+            }
+        }));
+        ClientTickEvents.END_CLIENT_TICK.register(timed(PerfStats.Subsystem.SCHEDULER, this::onClientTick));
+        ClientTickEvents.END_CLIENT_TICK.register(timed(PerfStats.Subsystem.OUTBOUND, this::onOutboundTick));
+        ClientTickEvents.END_CLIENT_TICK.register(timed(PerfStats.Subsystem.WORLD_CLOCK, this::onWorldClockTick));
+        ClientTickEvents.END_CLIENT_TICK.register(client -> AfkRenderMode.tick(client, config));
+        ClientTickEvents.END_CLIENT_TICK.register(client -> AfkResourceProfile.tick(client, config));
+        ClientTickEvents.END_CLIENT_TICK.register(client -> ReconnectManager.tick(client, config));
+        ClientTickEvents.END_CLIENT_TICK.register(timed(PerfStats.Subsystem.HUD, this::onHudTick));
+        HudElementRegistry.addLast(HudStatusOverlay.ID, hudOverlay);
+        
+        // Per-server settings are resolved when joining
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> onJoin(client));
+        ClientWorldEvents.AFTER_CLIENT_WORLD_CHANGE.register((client, world) -> onWorldChange(world));
+        
+        // Never leave reduced view distances behind in the user's options
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            if (ReconnectManager.onDisconnect(AfkDetector.isAfk(), config)) {
+                saveSession();
+            }
+            AfkResourceProfile.reset(client);
+            outboundQueue.clear();
+            recentMessages.clear();
+            floodGuard.reset();
+            dimensionTracker.reset();
+            WeatherWatcher.reset();
+            sleepQuorum.reset();
+            coordinator.stop();
+            nightWindows.save();
+            pendingDisconnectReason = null;
+            publishEvent("disconnected", "server", serverKey);
+        });
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+            AfkResourceProfile.reset(client);
+            coordinator.stop();
+            controlServer.stop();
+            nightWindows.save();
+        });
         
         // Register chat events - both GAME (server messages) and CHAT (player messages)
-        ClientReceiveMessageEvents.GAME.register(this::onChatMessage);
+        ClientReceiveMessageEvents.GAME.register((message, overlay) -> onChatMessage(message, null, null, overlay));
         ClientReceiveMessageEvents.CHAT.register((message, signedMessage, sender, params, receptionTimestamp) -> {
             // Forward chat messages to our handler with overlay=false since chat messages aren't overlays
-            onChatMessage(message, false);
+            onChatMessage(message, sender, params, false);
         });
         
         // Register commands
@@ -152,47 +240,27 @@ public class AutoAFKSleep implements ClientModInitializer {
         LOGGER.info("Using intelligent time-based scheduling - sleeping until night approaches");
     }
     
-    private void initializePatterns() {
-        // Initialize sleep keywords for faster lookup
-        sleepKeywords.add("sleep");
-        sleepKeywords.add("bed");
-        sleepKeywords.add("night");
-        sleepKeywords.add("afk");
-        sleepKeywords.add("away");
-        sleepKeywords.add("there");
-        sleepKeywords.add("hello");
-        sleepKeywords.add("wake");
-        
-        // System message patterns
-        systemMessagePatterns.add("has made the advancement");
-        systemMessagePatterns.add("was slain by");
-        systemMessagePatterns.add("fell from");
-        systemMessagePatterns.add("drowned");
-        systemMessagePatterns.add("died");
-        systemMessagePatterns.add("joined the game");
-        systemMessagePatterns.add("left the game");
-        systemMessagePatterns.add("[server]");
-        systemMessagePatterns.add("[system]");
-        
-        // Compile regex pattern for direct messages (compiled once for performance)
-        directMessagePattern = Pattern.compile(
-            ".*(?:whispers?(?:\\s+to\\s+you)?:|/(?:msg|tell|w)\\s+|->\\s*(?:me\\])?|@).*",
-            Pattern.CASE_INSENSITIVE
-        );
-    }
-    
     private void onClientTick(MinecraftClient client) {
-        if (!config.modEnabled || client.player == null || client.world == null) {
+        // Single read while the player is active (also covers the mod being disabled)
+        if (!AfkDetector.isAfk()) {
             return;
         }
-        
-        // Process AutoEat feature
-        if (config.autoEatEnabled) {
-            autoEat.tick(client);
+        if (client.player == null || client.world == null) {
+            return;
         }
         
         tickCounter++;
         
+        // A changed player list changes the quorum - re-evaluate right away
+        ClientPlayNetworkHandler networkHandler = client.getNetworkHandler();
+        int playerCount = networkHandler != null ? networkHandler.getPlayerList().size() : 0;
+        if (playerCount != lastPlayerCount) {
+            lastPlayerCount = playerCount;
+            if (sleepQuorum.isKnown(System.currentTimeMillis())) {
+                nextCheckTick = tickCounter;
+            }
+        }
+        
         // Handle pending sleep verification
         if (pendingSleepPos != null) {
             sleepVerifyTicks++;
@@ -204,25 +272,52 @@ public class AutoAFKSleep implements ClientModInitializer {
             return; // Don't do other checks while verifying sleep
         }
         
+        // Sleep requested by a chat rule - try right away, whatever the time
+        if (sleepNowRequested) {
+            sleepNowRequested = false;
+            if (!client.player.isSleeping() && dimensionTracker.canSleep()) {
+                LOGGER.info("Sleep requested by chat rule, attempting to sleep now");
+                tryToSleep(client);
+            }
+            nextCheckTick = tickCounter + config.checkIntervalNightSeconds * TICKS_PER_SECOND;
+            return;
+        }
+        
+        // Thunderstorms make beds usable at any time - one attempt per storm, even during the long day wait
+        if (WeatherWatcher.consumeStormStart() && WeatherWatcher.isThundering() && dimensionTracker.canSleep() &&
+                !client.player.isSleeping() && !nightWindows.isNight(client.world.getTimeOfDay() % DAY_LENGTH)) {
+            LOGGER.info("Thunderstorm started, attempting to sleep now");
+            stormAttempt = true;
+            tryToSleep(client);
+            nextCheckTick = tickCounter + SLEEP_VERIFY_DELAY + 1;
+            return;
+        }
+        
         // Only check when we've reached the next check time
         if (tickCounter < nextCheckTick) {
             return;
         }
         
-        // Check dimension with caching for performance
-        if (!isOverworldDimension(client)) {
+        // Beds explode in the nether and end - wait for the next world change
+        if (!dimensionTracker.canSleep()) {
             nextCheckTick = tickCounter + CHECK_INTERVAL_OTHER_DIMENSION_TICKS;
+            AfkResourceProfile.onSchedulerIdle(client, config, lastBedPos);
             return;
         }
         
         long timeOfDay = client.world.getTimeOfDay() % DAY_LENGTH;
         
         // Calculate intelligent delay based on current time
-        if (timeOfDay >= NIGHT_START && timeOfDay <= NIGHT_END) {
+        if (nightWindows.isNight(timeOfDay)) {
             // It's night time
             if (!client.player.isSleeping() && System.currentTimeMillis() - lastSleepAttempt >= config.sleepAttemptCooldownSeconds * 1000L) {
-                // Check if we've failed too many times
-                if (consecutiveFailures >= config.maxConsecutiveFailures) {
+                // Check the sleep quorum and whether we've failed too many times
+                if (sleepQuorum.isUnreachable(System.currentTimeMillis(), lastPlayerCount)) {
+                    // Not enough players online to ever skip the night - wait for the list or quorum to change
+                    nextCheckTick = tickCounter + config.checkIntervalFailureSeconds * TICKS_PER_SECOND;
+                    LOGGER.debug("Sleep quorum {}/{} unreachable with {} players online", 
+                        sleepQuorum.getSleeping(), sleepQuorum.getRequired(), lastPlayerCount);
+                } else if (consecutiveFailures >= config.maxConsecutiveFailures) {
                     // Wait until next night
                     int ticksUntilNextNight = calculateTicksUntilNextNight(timeOfDay);
                     nextCheckTick = tickCounter + ticksUntilNextNight;
@@ -237,6 +332,18 @@ public class AutoAFKSleep implements ClientModInitializer {
                 nextCheckTick = tickCounter + config.checkIntervalNightSeconds * TICKS_PER_SECOND;
             }
         } else {
+            // Once a day, probe just before the learned night in case it starts earlier on this world
+            long day = client.world.getTimeOfDay() / DAY_LENGTH;
+            if (day != lastProbeDay && !client.player.isSleeping() && lastBedPos != null &&
+                nightWindows.ticksUntilNight(timeOfDay, 0) <= config.wakeUpMarginSeconds * TICKS_PER_SECOND) {
+                lastProbeDay = day;
+                LOGGER.debug("Probing for an earlier night at {}", timeOfDay);
+                sleepProbe = true;
+                tryToSleep(client);
+                nextCheckTick = tickCounter + SLEEP_VERIFY_DELAY + 1;
+                return;
+            }
+            
             // Calculate intelligent delay until night
             int ticksUntilNight = calculateTicksUntilNight(timeOfDay);
             nextCheckTick = tickCounter + ticksUntilNight;
@@ -246,6 +353,104 @@ public class AutoAFKSleep implements ClientModInitializer {
             
             LOGGER.info("Day time ({}). Next check in {} seconds", 
                 timeOfDay, ticksUntilNight / TICKS_PER_SECOND);
+            
+            // Nothing to do until night - drop to the AFK resource profile
+            AfkResourceProfile.onSchedulerIdle(client, config, lastBedPos);
+        }
+    }
+    
+    private void onJoin(MinecraftClient client) {
+        serverKey = client.getCurrentServerEntry() != null ? 
+            client.getCurrentServerEntry().address.toLowerCase() : SINGLEPLAYER_KEY;
+        chatPlayerName = client.getSession().getUsername();
+        // Profiles are resolved and compiled once per server and cached - no file I/O here
+        applyConfig();
+        onWorldChange(client.world);
+        // AFTER_CLIENT_WORLD_CHANGE fires before JOIN, so the window was picked under the previous server's key
+        selectNightWindow();
+        ReconnectManager.onJoin(client.getCurrentServerEntry());
+        if (resumeSession != null) {
+            if (resumeSession.isResumableOn(serverKey, System.currentTimeMillis())) {
+                resumeSession(resumeSession);
+            }
+            resumeSession = null;
+            SessionState.clear();
+        }
+    }
+    
+    private void saveSession() {
+        SessionState session = new SessionState();
+        session.server = serverKey;
+        session.dimension = dimensionTracker.getDimension() != null ?
+            dimensionTracker.getDimension().getValue().toString() : null;
+        session.savedAt = System.currentTimeMillis();
+        session.consecutiveFailures = consecutiveFailures;
+        session.ticksUntilNextCheck = Math.max(0, nextCheckTick - tickCounter);
+        session.lastBedPos = lastBedPos != null ?
+            new int[] { lastBedPos.getX(), lastBedPos.getY(), lastBedPos.getZ() } : null;
+        session.autoEat = autoEat.saveState();
+        session.save();
+        resumeSession = session;
+        LOGGER.info("Saved interrupted session for {}", serverKey);
+    }
+    
+    private void resumeSession(SessionState session) {
+        long offlineMillis = System.currentTimeMillis() - session.savedAt;
+        consecutiveFailures = session.consecutiveFailures;
+        // The world clock kept running while we were away
+        int offlineTicks = (int) Math.min(Integer.MAX_VALUE, offlineMillis / 50);
+        nextCheckTick = tickCounter + Math.max(0, session.ticksUntilNextCheck - offlineTicks);
+        String dimension = dimensionTracker.getDimension() != null ?
+            dimensionTracker.getDimension().getValue().toString() : null;
+        if (session.lastBedPos != null && session.lastBedPos.length == 3 && dimension != null && dimension.equals(session.dimension)) {
+            lastBedPos = new BlockPos(session.lastBedPos[0], session.lastBedPos[1], session.lastBedPos[2]);
+        }
+        if (session.autoEat != null) {
+            autoEat.restoreState(session.autoEat, offlineMillis);
+        }
+        LOGGER.info("Resumed session on {} after {}s offline (next check in {}s, bed {})",
+            serverKey, offlineMillis / 1000, (nextCheckTick - tickCounter) / TICKS_PER_SECOND,
+            lastBedPos != null ? lastBedPos.toShortString() : "unknown");
+    }
+    
+    private void onWorldChange(ClientWorld world) {
+        if (!dimensionTracker.onWorldChange(world)) {
+            return;
+        }
+        selectNightWindow();
+        // Beds from the previous dimension are out of reach - re-plan right away
+        pendingSleepPos = null;
+        pendingSleepEvent = null;
+        sleepVerifyTicks = 0;
+        sleepProbe = false;
+        stormAttempt = false;
+        awaitingBedClaim = false;
+        lastBedPos = null;
+        nextCheckTick = tickCounter;
+    }
+    
+    private void selectNightWindow() {
+        if (dimensionTracker.getDimension() != null) {
+            nightWindows.select(serverKey + '|' + dimensionTracker.getDimension().getValue());
+        }
+    }
+    
+    private void onAfkStateChanged(MinecraftClient client, boolean afk) {
+        publishEvent("afk", "afk", String.valueOf(afk));
+        coordinator.setAfk(afk);
+        if (afk) {
+            // The schedule was frozen while the player was active - re-evaluate right away
+            nextCheckTick = tickCounter;
+        } else {
+            // Hand control back to the player
+            autoEat.stopEating(client);
+            pendingSleepPos = null;
+            pendingSleepEvent = null;
+            sleepVerifyTicks = 0;
+            sleepProbe = false;
+            stormAttempt = false;
+            // Replies queued while AFK would speak for a player who is back at the keyboard
+            outboundQueue.clearChat();
         }
     }
     
@@ -257,8 +462,8 @@ public class AutoAFKSleep implements ClientModInitializer {
         
         if (reachableBeds.isEmpty()) {
             LOGGER.info("No beds within reach (max {} blocks). Move closer to a bed!", MAX_INTERACT_DISTANCE);
-            consecutiveFailures++;
-            handleSleepFailure(client);
+            commitSleepEvent(new FlightEvents.SleepAttempt(), null, 0, "no_bed");
+            onSleepAttemptFailed(client);
             return;
         }
         
@@ -266,17 +471,51 @@ public class AutoAFKSleep implements ClientModInitializer {
         
         // Try beds in order of distance (already sorted in findReachableBeds)
         Vec3d playerEyePos = player.getEyePos();
+        int claimedByOthers = 0;
         for (BlockPos bedPos : reachableBeds) {
+            // Beds claimed by another coordinated client are left to it
+            BlockPos bedHead = getBedHead(client.world, bedPos);
+            if (coordinator.isClaimedByOther(bedHead)) {
+                claimedByOthers++;
+                continue;
+            }
             double distance = Math.sqrt(playerEyePos.squaredDistanceTo(Vec3d.ofCenter(bedPos)));
+            // Claim before interacting; a follower's claim needs the leader's answer first
+            if (!coordinator.claimBed(bedHead)) {
+                LOGGER.debug("Waiting for the coordination leader to confirm bed at {}", bedHead);
+                commitSleepEvent(new FlightEvents.SleepAttempt(), bedPos, distance, "claim_pending");
+                // The retry is a regular attempt - a probe or storm outcome must not carry over to it
+                sleepProbe = false;
+                stormAttempt = false;
+                awaitingBedClaim = true;
+                return;
+            }
+            FlightEvents.SleepAttempt sleepEvent = new FlightEvents.SleepAttempt();
+            sleepEvent.begin();
             if (attemptToUseBed(client, bedPos)) {
                 LOGGER.info("Attempting to sleep in bed at {} (distance: {}m)", 
                     bedPos, String.format("%.1f", distance));
+                // Committed once the attempt is verified
+                sleepEvent.distance = distance;
+                pendingSleepEvent = sleepEvent;
                 return;
             }
+            commitSleepEvent(sleepEvent, bedPos, distance, "interact_failed");
         }
         
         // Couldn't use any bed
-        LOGGER.info("Failed to use any of {} reachable beds", reachableBeds.size());
+        LOGGER.info("Failed to use any of {} reachable beds ({} claimed by other clients)", reachableBeds.size(), claimedByOthers);
+        onSleepAttemptFailed(client);
+    }
+    
+    private void onSleepAttemptFailed(MinecraftClient client) {
+        // Probes, storm attempts and "not night yet" rejections don't mean sleeping is impossible
+        if (sleepProbe || stormAttempt || sleepRejectedForTime) {
+            sleepProbe = false;
+            stormAttempt = false;
+            sleepRejectedForTime = false;
+            return;
+        }
         consecutiveFailures++;
         handleSleepFailure(client);
     }
@@ -306,6 +545,9 @@ public class AutoAFKSleep implements ClientModInitializer {
             
             // Schedule sleep verification
             pendingSleepPos = bedPos;
+            pendingSleepTimeOfDay = client.world.getTimeOfDay() % DAY_LENGTH;
+            pendingSleepInStorm = WeatherWatcher.isThundering();
+            sleepRejectedForTime = false;
             sleepVerifyTicks = 0;
             LOGGER.debug("Scheduled sleep verification for bed at {}", bedPos);
             
@@ -320,14 +562,47 @@ public class AutoAFKSleep implements ClientModInitializer {
         ClientPlayerEntity player = client.player;
         if (player == null) return;
         
-        if (player.isSleeping()) {
+        boolean sleeping = player.isSleeping();
+        if (pendingSleepEvent != null) {
+            commitSleepEvent(pendingSleepEvent, pendingSleepPos, pendingSleepEvent.distance,
+                sleeping ? "sleeping" : "not_sleeping");
+            pendingSleepEvent = null;
+        }
+        
+        if (sleeping) {
             LOGGER.info("Successfully sleeping!");
+            PerfStats.recordSleepResult(client.world.getTimeOfDay() / DAY_LENGTH, true);
+            publishEvent("sleep", "outcome", "sleeping");
             consecutiveFailures = 0; // Reset on success
+            lastBedPos = pendingSleepPos;
+            sleepProbe = false;
+            stormAttempt = false;
+            if (!pendingSleepInStorm) {
+                nightWindows.recordSuccess(pendingSleepTimeOfDay);
+            }
         } else {
             LOGGER.info("Sleep verification failed - player not in bed after {}ms", SLEEP_VERIFY_DELAY * 50);
-            consecutiveFailures++;
-            handleSleepFailure(client);
+            publishEvent("sleep", "outcome", "not_sleeping");
+            if (!sleepProbe && !stormAttempt) {
+                PerfStats.recordSleepResult(client.world.getTimeOfDay() / DAY_LENGTH, false);
+            }
+            onSleepAttemptFailed(client);
+        }
+    }
+    
+    private void commitSleepEvent(FlightEvents.SleepAttempt event, BlockPos bedPos, double distance, String outcome) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        if (bedPos != null) {
+            event.bedX = bedPos.getX();
+            event.bedY = bedPos.getY();
+            event.bedZ = bedPos.getZ();
         }
+        event.distance = distance;
+        event.attempt = consecutiveFailures + 1;
+        event.outcome = outcome;
+        event.commit();
     }
     
     private void handleSleepFailure(MinecraftClient client) {
@@ -340,7 +615,7 @@ public class AutoAFKSleep implements ClientModInitializer {
             case CUSTOM_COMMAND:
                 if (config.customCommand != null && !config.customCommand.isEmpty()) {
                     LOGGER.info("Executing custom command: {}", config.customCommand);
-                    sendCommand(client, config.customCommand);
+                    sendCommand(config.customCommand);
                 }
                 break;
                 
@@ -350,15 +625,21 @@ public class AutoAFKSleep implements ClientModInitializer {
         }
     }
     
-    private void onChatMessage(Text message, boolean overlay) {
-        // Skip overlay messages silently (coordinates, etc.)
+    private void onChatMessage(Text message, GameProfile sender, MessageType.Parameters params, boolean overlay) {
+        long start = System.nanoTime();
+        processChatMessage(message, sender, params, overlay);
+        PerfStats.recordCost(PerfStats.Subsystem.CHAT, System.nanoTime() - start);
+    }
+    
+    private void processChatMessage(Text message, GameProfile sender, MessageType.Parameters params, boolean overlay) {
+        // Action bar messages never reach the chat handling (coordinates, etc.)
         if (overlay) {
+            onOverlayMessage(message);
             return;
         }
-        
-        LOGGER.debug("Chat message received: {}", message.getString());
-        
-        if (!config.modEnabled) {
+        // While the player is active only the disconnect phrase is honored - it's a remote kill switch
+        if (!AfkDetector.isAfk()) {
+            checkDisconnectPhrase(message);
             return;
         }
         
@@ -367,147 +648,453 @@ public class AutoAFKSleep implements ClientModInitializer {
             return;
         }
         
+        // Repeats still count toward the flood rate
+        long now = System.currentTimeMillis();
+        floodGuard.recordMessage(now);
+        
+        // Repeated broadcasts are dropped before any string work
+        long dedupKey = RecentMessageCache.key(message.hashCode(), sender != null ? sender.getId().hashCode() : 0);
+        String previousCategory = recentMessages.lookup(dedupKey, now);
+        if (previousCategory != null) {
+            LOGGER.debug("Skipping repeated message, handled as '{}'", previousCategory);
+            PerfStats.recordChatCategory("duplicate");
+            return;
+        }
+        
+        // Handling latency is the event duration
+        FlightEvents.ChatClassification chatEvent = new FlightEvents.ChatClassification();
+        chatEvent.begin();
+        String category = handleChatMessage(client, message, sender, params);
+        recentMessages.record(dedupKey, now, category);
+        PerfStats.recordChatCategory(category);
+        if (!category.equals("ignored")) {
+            publishEvent("chat", "category", category);
+        }
+        if (chatEvent.shouldCommit()) {
+            chatEvent.category = category;
+            chatEvent.messageLength = message.getString().length();
+            chatEvent.commit();
+        }
+    }
+    
+    /**
+     * Action bar messages - of interest are the "players sleeping" counter for
+     * the sleep quorum and the bed feedback for our own sleep attempts.
+     */
+    private void onOverlayMessage(Text message) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (sleepQuorum.onOverlayMessage(message, System.currentTimeMillis())) {
+            LOGGER.debug("Sleep quorum: {}/{}", sleepQuorum.getSleeping(), sleepQuorum.getRequired());
+            // Someone got into bed and we'd be the last one needed - don't keep them waiting
+            if (client.player != null && !client.player.isSleeping() && sleepQuorum.wouldComplete(System.currentTimeMillis())) {
+                nextCheckTick = tickCounter;
+            }
+            return;
+        }
+        if (pendingSleepPos != null && message.getContent() instanceof TranslatableTextContent translatable
+                && translatable.getKey().equals("block.minecraft.bed.no_sleep")) {
+            sleepRejectedForTime = true;
+            if (!pendingSleepInStorm) {
+                nightWindows.recordRejected(pendingSleepTimeOfDay);
+            }
+        }
+    }
+    
+    private void checkDisconnectPhrase(Text message) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (!config.modEnabled || !config.disconnectPhraseEnabled || client.player == null || !chatMatcher.mightMatch(message)) {
+            return;
+        }
         String fullMessage = message.getString();
-        String messageText = fullMessage.toLowerCase();
-        String playerName = client.player.getName().getString();
-        String playerNameLower = playerName.toLowerCase();
-        LOGGER.debug("Processing message: '{}' (player: {})", fullMessage, playerName);
+        if (isOurEcho(message, fullMessage) || fullMessage.contains(DISCONNECT_INSTRUCTION)) {
+            return;
+        }
+        if ((chatMatcher.scan(fullMessage) & ChatMatcher.DISCONNECT_PHRASE) != 0) {
+            LOGGER.info("Disconnect phrase '{}' detected in message: {}", config.disconnectPhrase, fullMessage);
+            triggerDisconnect(client, "disconnect phrase detected");
+            PerfStats.recordChatCategory("disconnect");
+        }
+    }
+    
+    /**
+     * ONLY echoes of what we just sent count - a player quoting us is still handled.
+     */
+    private boolean isOurEcho(Text message, String fullMessage) {
+        SentMessageFingerprints sent = outboundQueue.getSentFingerprints();
+        long now = System.currentTimeMillis();
+        String ownBody = ChatClassifier.ownChatBody(message, chatPlayerName);
+        return ownBody != null ? sent.matchesBody(ownBody, now) : sent.matchesEcho(fullMessage, chatPlayerName, now);
+    }
+    
+    /**
+     * Classifies a chat message and performs the resulting action.
+     * @return the classification category, recorded in the JFR chat event
+     */
+    private String handleChatMessage(MinecraftClient client, Text message, GameProfile sender, 
+                                     MessageType.Parameters params) {
+        // Vanilla formats are classified from the message structure; plugin formats fall back to markers
+        ChatClassifier.Kind kind = ChatClassifier.classify(message, params, sender, client.player.getUuid());
         
-        // ONLY ignore our own auto-response messages - nothing else!
-        boolean isOurAutoResponse = false;
-        if (config.autoRespond && config.responseMessage != null) {
-            isOurAutoResponse = fullMessage.contains(config.responseMessage);
+        // Cheap first stage - a message without any of our needles is only of interest as a whisper
+        boolean mightMatch = chatMatcher.mightMatch(message);
+        PerfStats.recordPrefilter(mightMatch);
+        if (!mightMatch && kind != ChatClassifier.Kind.DIRECT) {
+            return "ignored";
         }
-        // Also ignore the disconnect instruction message
-        if (!isOurAutoResponse && config.disconnectPhraseEnabled && config.disconnectPhrase != null) {
-            isOurAutoResponse = fullMessage.contains("To force me to disconnect say:") && 
-                               fullMessage.contains(config.disconnectPhrase);
+        
+        String fullMessage = message.getString();
+        LOGGER.debug("Processing message: '{}'", fullMessage);
+        // During a flood only high-priority messages are handled and logged
+        boolean flooding = floodGuard.isFlooding();
+        
+        if (isOurEcho(message, fullMessage)) {
+            if (!flooding) {
+                LOGGER.info("Ignoring our own auto-response message");
+            }
+            return "self";
         }
         
-        if (isOurAutoResponse) {
-            LOGGER.info("Ignoring our own auto-response message");
-            return;
+        // Disconnect instructions (ours or another client's) quote the phrase, which is often the shared default
+        if (fullMessage.contains(DISCONNECT_INSTRUCTION)) {
+            return "ignored";
         }
         
-        // Detect message type
-        boolean isDirectMessage = false;
-        boolean isAboutSleep = false;
-        boolean mentionsPlayer = false;
+        // One linear pass over the message for keywords, markers, our name, disconnect phrase and rules
+        long matches = chatMatcher.scan(fullMessage);
+        
+        // Check for disconnect phrase in ANY message (including player's own for testing!)
+        if ((matches & ChatMatcher.DISCONNECT_PHRASE) != 0) {
+            LOGGER.info("Disconnect phrase '{}' detected in message: {}", 
+                config.disconnectPhrase, fullMessage);
+            triggerDisconnect(client, "disconnect phrase detected");
+            floodGuard.recordHandled();
+            return "disconnect";
+        }
         
-        // Check for direct message patterns (optimized)
-        if (isDirectMessageToPlayer(messageText, playerNameLower)) {
-            isDirectMessage = true;
+        if (kind == ChatClassifier.Kind.OWN) {
+            return "self";
         }
         
-        // Check if message contains sleep keywords (optimized with Set lookup)
-        for (String keyword : sleepKeywords) {
-            if (messageText.contains(keyword)) {
-                isAboutSleep = true;
-                break;
-            }
+        boolean isDirectMessage = kind == ChatClassifier.Kind.DIRECT || 
+            (kind == ChatClassifier.Kind.UNKNOWN && (matches & ChatMatcher.DIRECT_MESSAGE_MARKER) != 0);
+        boolean isSystemMessage = kind == ChatClassifier.Kind.SYSTEM || 
+            (kind == ChatClassifier.Kind.UNKNOWN && (matches & ChatMatcher.SYSTEM_PATTERN) != 0);
+        boolean isAboutSleep = (matches & ChatMatcher.SLEEP_KEYWORD) != 0;
+        
+        if (flooding && !isDirectMessage) {
+            return "flood";
         }
         
         // Check if player is mentioned (but not in a system message)
-        if (messageText.contains(playerNameLower) && 
-            !messageText.contains("joined the game") &&
-            !messageText.contains("left the game") &&
-            !messageText.contains("has made the advancement")) {
-            mentionsPlayer = true;
-        }
+        boolean mentionsPlayer = !isSystemMessage && (matches & ChatMatcher.PLAYER_NAME) != 0;
+        // Public chatter not aimed at us is answered once, by the coordination leader - if it's AFK itself
+        boolean leaderAnswers = coordinator.isLeaderAnswering() && !isDirectMessage && !mentionsPlayer;
         
         // Log message classification for debugging
-        LOGGER.info("Message classification - Direct: {}, About Sleep: {}, Mentions Player: {}", 
-            isDirectMessage, isAboutSleep, mentionsPlayer);
+        if (!flooding) {
+            LOGGER.info("Message classification - Kind: {}, Direct: {}, About Sleep: {}, Mentions Player: {}", 
+                kind, isDirectMessage, isAboutSleep, mentionsPlayer);
+        } else {
+            floodGuard.recordHandled();
+        }
         
-        // Check for disconnect phrase in ANY message (including player's own for testing!)
-        if (config.disconnectPhraseEnabled && config.disconnectPhrase != null && !config.disconnectPhrase.isEmpty()) {
-            String disconnectPhraseLower = config.disconnectPhrase.toLowerCase();
-            LOGGER.info("Checking for disconnect phrase '{}' in message", disconnectPhraseLower);
-            
-            if (messageText.contains(disconnectPhraseLower)) {
-                LOGGER.info("Disconnect phrase '{}' detected in message: {}", 
-                    config.disconnectPhrase, fullMessage);
-                
-                // Send acknowledgment before disconnecting (non-blocking)
-                if (config.autoRespond) {
-                    sendChatMessage(client, "Disconnecting due to AFK phrase. Goodbye!");
-                    // Schedule disconnect after message sends
-                    CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS).execute(() -> {
-                        disconnect(client, "disconnect phrase detected");
-                    });
-                    return;
-                }
-                
-                // Disconnect already scheduled in callback
-                return;
+        // User-defined trigger rules, first match for the message's scope wins
+        ModConfig.RuleScope scope = isDirectMessage ? ModConfig.RuleScope.DM : 
+            isSystemMessage ? ModConfig.RuleScope.SYSTEM : ModConfig.RuleScope.PUBLIC;
+        ModConfig.ChatRule rule = chatMatcher.firstRule(matches, scope);
+        if (rule != null) {
+            if (!flooding) {
+                LOGGER.info("Chat rule '{}' ({}) matched, action: {}", rule.pattern, rule.scope, rule.action);
+            }
+            switch (rule.action) {
+                case RESPOND:
+                    // Auto-responses wait until the flood is over
+                    if (flooding) {
+                        return "flood";
+                    }
+                    return leaderAnswers ? "leader" : respond(sender);
+                case DISCONNECT:
+                    triggerDisconnect(client, "chat rule '" + rule.pattern + "' matched");
+                    return "disconnect";
+                case RUN_COMMAND:
+                    sendCommand(rule.command);
+                    return "command";
+                case SLEEP_NOW:
+                    sleepNowRequested = true;
+                    nextCheckTick = tickCounter;
+                    return "sleep";
             }
         }
         
         // Auto-respond logic - respond to ANY message that mentions us or sleep/afk keywords
-        if (config.autoRespond && config.responseMessage != null && !config.responseMessage.isEmpty()) {
-            boolean shouldRespond = false;
-            
-            // Respond if: direct message, mentions player, or contains sleep/afk keywords
-            if (isDirectMessage || mentionsPlayer || isAboutSleep) {
-                // Don't respond to system messages
-                if (!isSystemMessage(messageText)) {
-                    shouldRespond = true;
-                    LOGGER.info("Will respond - Direct: {}, Mentions: {}, AboutSleep: {}", 
-                        isDirectMessage, mentionsPlayer, isAboutSleep);
-                }
+        if (flooding) {
+            return "flood";
+        }
+        if (config.autoRespond && (isDirectMessage || mentionsPlayer || isAboutSleep)) {
+            // Don't respond to system messages
+            if (isSystemMessage) {
+                return "system";
             }
-            
-            if (shouldRespond) {
-                // Check cooldown to prevent spam
-                long currentTime = System.currentTimeMillis();
-                long cooldownMs = config.chatResponseCooldownSeconds * 1000L;
-                if (currentTime - lastChatResponse < cooldownMs) {
-                    LOGGER.debug("Skipping response due to cooldown ({} seconds remaining)", 
-                        (cooldownMs - (currentTime - lastChatResponse)) / 1000);
-                    return;
+            if (leaderAnswers) {
+                return "leader";
+            }
+            LOGGER.info("Will respond - Direct: {}, Mentions: {}, AboutSleep: {}", 
+                isDirectMessage, mentionsPlayer, isAboutSleep);
+            return respond(sender);
+        }
+        
+        return "ignored";
+    }
+    
+    private String respond(GameProfile sender) {
+        // Per-sender cooldown and global budget to prevent spam
+        long waitMs = responseCooldowns.tryAcquire(sender != null ? sender.getId() : null, System.currentTimeMillis());
+        if (waitMs > 0) {
+            LOGGER.debug("Skipping response due to cooldown ({} seconds remaining)", waitMs / 1000);
+            return "cooldown";
+        }
+        
+        // Render the template with live values and schedule it with delay (non-blocking)
+        responseSender = sender;
+        responseTemplate.render(responseBuffer, this::appendPlaceholder);
+        responseSender = null;
+        scheduleDelayedResponse(responseBuffer.toString(), 20 + (int)(Math.random() * 40));
+        return "respond";
+    }
+    
+    private void triggerDisconnect(MinecraftClient client, String reason) {
+        publishEvent("disconnect", "reason", reason);
+        // Send acknowledgment before disconnecting (non-blocking)
+        if (config.autoRespond) {
+            // We're leaving - pending chatter would only delay the goodbye
+            outboundQueue.clearChat();
+            outboundQueue.enqueue(OutboundChatQueue.Kind.CHAT, "Disconnecting due to AFK phrase. Goodbye!", 0,
+                () -> scheduleDisconnect(reason, DISCONNECT_AFTER_GOODBYE_TICKS));
+            // Leave anyway if the rate limit holds the goodbye back too long
+            scheduleDisconnect(reason, DISCONNECT_GOODBYE_TIMEOUT_TICKS);
+        } else {
+            disconnect(client, reason);
+        }
+    }
+    
+    private void appendPlaceholder(ResponseTemplate.Placeholder placeholder, StringBuilder out) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        ClientPlayerEntity player = client.player;
+        switch (placeholder) {
+            case TIME_UNTIL_NIGHT:
+                long timeOfDay = client.world != null ? client.world.getTimeOfDay() % DAY_LENGTH : 0;
+                if (nightWindows.isNight(timeOfDay)) {
+                    out.append("now");
+                } else {
+                    int ticksUntilNight = nightWindows.ticksUntilNight(timeOfDay, 0);
+                    out.append(Math.max(1, ticksUntilNight / (TICKS_PER_SECOND * 60))).append(" min");
                 }
+                break;
                 
-                // Schedule response with delay (non-blocking)
-                scheduleDelayedResponse(client, config.responseMessage, 1000 + (long)(Math.random() * 2000));
+            case SLEEPING:
+                out.append(player != null && player.isSleeping() ? "asleep" : "awake");
+                break;
                 
-                lastChatResponse = currentTime;
-            }
+            case HUNGER:
+                out.append(player != null ? player.getHungerManager().getFoodLevel() : 0).append("/20");
+                break;
+                
+            case FOOD_HOURS_LEFT:
+                double hours = player != null ? autoEat.getFoodHoursLeft(player) : -1;
+                if (hours < 0) {
+                    out.append('?');
+                } else {
+                    // One decimal without String.format
+                    long tenths = Math.round(hours * 10);
+                    out.append(tenths / 10).append('.').append(tenths % 10);
+                }
+                break;
+                
+            case SENDER:
+                out.append(responseSender != null ? responseSender.getName() : "there");
+                break;
+        }
+    }
+    
+    private void sendCommand(String command) {
+        outboundQueue.enqueue(OutboundChatQueue.Kind.COMMAND, command, 0, null);
+    }
+    
+    private void scheduleDisconnect(String reason, int delayTicks) {
+        // Keep the earliest deadline if one is already pending
+        if (pendingDisconnectReason == null || delayTicks < pendingDisconnectTicks) {
+            pendingDisconnectReason = reason;
+            pendingDisconnectTicks = delayTicks;
         }
     }
     
-    private boolean isSystemMessage(String message) {
-        // Optimized with Set lookup
-        for (String pattern : systemMessagePatterns) {
-            if (message.contains(pattern)) {
-                return true;
+    private void onWorldClockTick(MinecraftClient client) {
+        // Runs whether or not the player is AFK so the time speed samples stay contiguous
+        if (client.world != null && client.player != null && dimensionTracker.canSleep()) {
+            nightWindows.sampleTime(client.world.getTimeOfDay(), client.player.isSleeping());
+            if (coordinator.isActive()) {
+                // The leader's window stands for the whole group
+                String dimension = dimensionTracker.getDimension().getValue().toString();
+                if (coordinator.isFollower()) {
+                    coordinator.consumeSharedWindow(dimension, nightWindows);
+                } else {
+                    coordinator.shareNightWindow(dimension, nightWindows.getStart(), nightWindows.getEnd(),
+                        nightWindows.getTimePerTick(), System.currentTimeMillis());
+                }
             }
         }
-        return false;
     }
     
-    private void sendChatMessage(MinecraftClient client, String message) {
-        try {
-            if (client.player != null) {
-                client.player.networkHandler.sendChatMessage(message);
+    /**
+     * Wraps a tick handler to record its cost for the dashboard.
+     */
+    private static ClientTickEvents.EndTick timed(PerfStats.Subsystem subsystem, ClientTickEvents.EndTick handler) {
+        return client -> {
+            long start = System.nanoTime();
+            handler.onEndTick(client);
+            PerfStats.recordCost(subsystem, System.nanoTime() - start);
+        };
+    }
+    
+    private void onHudTick(MinecraftClient client) {
+        if (!config.hudOverlayEnabled || client.player == null || client.world == null) {
+            hudOverlay.hide();
+            hudTicks = TICKS_PER_SECOND; // Show right away once enabled
+            return;
+        }
+        // The line shows whole seconds - no point in looking more often
+        if (++hudTicks < TICKS_PER_SECOND) {
+            return;
+        }
+        hudTicks = 0;
+        
+        ClientPlayerEntity player = client.player;
+        long timeOfDay = client.world.getTimeOfDay() % DAY_LENGTH;
+        int secondsUntilNight = !dimensionTracker.canSleep() ? HudStatusOverlay.NO_NIGHT :
+            nightWindows.isNight(timeOfDay) ? HudStatusOverlay.NIGHT :
+            Math.max(0, nightWindows.ticksUntilNight(timeOfDay, 0)) / TICKS_PER_SECOND;
+        double foodHours = autoEat.getFoodHoursLeft(player);
+        hudOverlay.update(config.modEnabled, AfkDetector.isAfk(), player.isSleeping(), secondsUntilNight,
+            player.getHungerManager().getFoodLevel(), foodHours < 0 ? -1 : (int) Math.min(9999, Math.round(foodHours * 10)),
+            consecutiveFailures);
+    }
+    
+    private void onOutboundTick(MinecraftClient client) {
+        outboundQueue.tick(client);
+        coordinator.tick();
+        if (awaitingBedClaim && !coordinator.hasPendingClaim()) {
+            // The leader answered - try again with the updated claims
+            awaitingBedClaim = false;
+            nextCheckTick = tickCounter;
+        }
+        // One history sample per second for the dashboard
+        if (++perfSampleTicks >= TICKS_PER_SECOND) {
+            perfSampleTicks = 0;
+            ClientPlayerEntity player = client.player;
+            PerfStats.sampleSecond(floodGuard.getRate(),
+                player != null ? player.getHungerManager().getFoodLevel() : 0,
+                player != null ? autoEat.getFoodHoursLeft(player) : -1);
+        }
+        if (controlServer.isActive()) {
+            controlServer.tick();
+            // Status requests are answered from this snapshot off the client thread
+            if (++controlSnapshotTicks >= TICKS_PER_SECOND) {
+                controlSnapshotTicks = 0;
+                controlServer.publishSnapshot(buildControlSnapshot(client));
             }
-        } catch (Exception e) {
-            LOGGER.error("Error sending chat message: ", e);
+        }
+        floodGuard.update(System.currentTimeMillis());
+        
+        if (pendingDisconnectReason != null && --pendingDisconnectTicks <= 0) {
+            String reason = pendingDisconnectReason;
+            pendingDisconnectReason = null;
+            disconnect(client, reason);
         }
     }
     
-    private void sendCommand(MinecraftClient client, String command) {
-        try {
-            if (client.player != null) {
-                // Ensure command starts with /
-                String cmd = command.startsWith("/") ? command : "/" + command;
-                client.player.networkHandler.sendChatCommand(cmd.substring(1));
+    /**
+     * Control socket operations mirroring the commands; runs on the client thread.
+     */
+    private JsonObject applyControlRequest(String op, JsonObject request) {
+        JsonObject reply = new JsonObject();
+        switch (op) {
+            case "enable", "disable", "toggle" -> {
+                baseConfig.modEnabled = op.equals("toggle") ? !baseConfig.modEnabled : op.equals("enable");
+                saveConfig();
+                reply.addProperty("enabled", config.modEnabled);
             }
-        } catch (Exception e) {
-            LOGGER.error("Error sending command: ", e);
+            case "config" -> {
+                if (!request.has("key") || !request.has("value")) {
+                    return ControlServer.error("config needs 'key' and 'value'");
+                }
+                try {
+                    baseConfig.set(request.get("key").getAsString(), request.get("value"));
+                } catch (IllegalArgumentException e) {
+                    return ControlServer.error(e.getMessage());
+                }
+                saveConfig();
+            }
+            case "perfReset" -> PerfStats.reset();
+            default -> {
+                return ControlServer.error("unknown op '" + op + "'");
+            }
+        }
+        reply.addProperty("ok", true);
+        return reply;
+    }
+    
+    private JsonObject buildControlSnapshot(MinecraftClient client) {
+        JsonObject status = new JsonObject();
+        status.addProperty("enabled", config.modEnabled);
+        status.addProperty("server", serverKey);
+        status.addProperty("connected", client.world != null);
+        status.addProperty("afk", AfkDetector.isAfk());
+        status.addProperty("idleSeconds", AfkDetector.getIdleMillis() / 1000);
+        status.addProperty("flooding", floodGuard.isFlooding());
+        status.addProperty("coordination", coordinator.isActive() ? coordinator.getRole().name() : "OFF");
+        status.addProperty("reconnectPending", ReconnectManager.isPending());
+        if (client.world != null && client.player != null) {
+            long timeOfDay = client.world.getTimeOfDay() % DAY_LENGTH;
+            status.addProperty("dimension", dimensionTracker.getDimension() != null ?
+                dimensionTracker.getDimension().getValue().toString() : null);
+            status.addProperty("timeOfDay", timeOfDay);
+            status.addProperty("night", nightWindows.isNight(timeOfDay));
+            status.addProperty("nightStart", nightWindows.getStart());
+            status.addProperty("nightEnd", nightWindows.getEnd());
+            status.addProperty("sleeping", client.player.isSleeping());
+            status.addProperty("nextCheckSeconds", Math.max(0, nextCheckTick - tickCounter) / TICKS_PER_SECOND);
+            status.addProperty("consecutiveFailures", consecutiveFailures);
+            status.addProperty("hunger", client.player.getHungerManager().getFoodLevel());
+            status.addProperty("foodHoursLeft", autoEat.getFoodHoursLeft(client.player));
+        }
+        
+        JsonObject perf = new JsonObject();
+        perf.addProperty("prefilterChecked", PerfStats.getPrefilterChecked());
+        perf.addProperty("prefilterPassed", PerfStats.getPrefilterPassed());
+        perf.addProperty("prefilterHitRate", PerfStats.getPrefilterHitRate());
+        perf.addProperty("duplicatesSkipped", recentMessages.getDuplicateCount());
+        JsonObject tickCostMicros = new JsonObject();
+        for (PerfStats.Subsystem subsystem : PerfStats.Subsystem.values()) {
+            tickCostMicros.addProperty(subsystem.name().toLowerCase(), PerfStats.getCostPercentile(subsystem, 1) / 1000.0);
+        }
+        perf.add("p95Micros", tickCostMicros);
+        
+        JsonObject snapshot = new JsonObject();
+        snapshot.add("status", status);
+        snapshot.add("perf", perf);
+        return snapshot;
+    }
+    
+    private void publishEvent(String type, String key, String value) {
+        if (controlServer.hasSubscribers()) {
+            JsonObject event = new JsonObject();
+            event.addProperty(key, value);
+            controlServer.publishEvent(type, event);
         }
     }
     
     private void disconnect(MinecraftClient client, String reason) {
+        ReconnectManager.markIntentionalDisconnect();
         try {
             client.execute(() -> {
                 if (client.world != null && client.getNetworkHandler() != null) {
@@ -542,29 +1129,37 @@ public class AutoAFKSleep implements ClientModInitializer {
                         context.getSource().sendFeedback(Text.literal("/autoafksleep disable - Disable the mod"));
                         context.getSource().sendFeedback(Text.literal("/autoafksleep toggle - Toggle mod on/off"));
                         context.getSource().sendFeedback(Text.literal("/autoafksleep status - Show current status"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep perf [reset] - Show chat processing counters"));
                         context.getSource().sendFeedback(Text.literal("/autoafksleep config <option> <value> - Configure mod"));
                         context.getSource().sendFeedback(Text.literal("/autoafksleep config autoEat <true/false> - Toggle AutoEat"));
                         context.getSource().sendFeedback(Text.literal("/autoafksleep config autoEatThreshold <1-19> - Set hunger threshold"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep config afkIdleSeconds <10-3600> - Set idle time before automation starts"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep config afkRenderMode <true/false> - Toggle low-power AFK rendering"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep config chatLanguage <code/auto> - Set the language of chat keywords"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep config autoReconnect <true/false> - Rejoin when the server drops an AFK session"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep config coordination <true/false> - Share beds and replies with AFK clients on this machine"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep config controlPort <port> - Open the local control socket (0 = off)"));
+                        context.getSource().sendFeedback(Text.literal("/autoafksleep config hud <true/false> - Show the status line on the HUD"));
                         context.getSource().sendFeedback(Text.literal("/autoafksleep ui - Open configuration GUI"));
                         return 1;
                     }))
                 .then(ClientCommandManager.literal("enable")
                     .executes(context -> {
-                        config.modEnabled = true;
+                        baseConfig.modEnabled = true;
                         saveConfig();
                         context.getSource().sendFeedback(Text.literal("AutoAFK Sleep enabled"));
                         return 1;
                     }))
                 .then(ClientCommandManager.literal("disable")
                     .executes(context -> {
-                        config.modEnabled = false;
+                        baseConfig.modEnabled = false;
                         saveConfig();
                         context.getSource().sendFeedback(Text.literal("AutoAFK Sleep disabled"));
                         return 1;
                     }))
                 .then(ClientCommandManager.literal("toggle")
                     .executes(context -> {
-                        config.modEnabled = !config.modEnabled;
+                        baseConfig.modEnabled = !baseConfig.modEnabled;
                         saveConfig();
                         context.getSource().sendFeedback(Text.literal("AutoAFK Sleep " + (config.modEnabled ? "enabled" : "disabled")));
                         return 1;
@@ -573,32 +1168,70 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .executes(context -> {
                         context.getSource().sendFeedback(Text.literal("=== AutoAFK Sleep Status ==="));
                         context.getSource().sendFeedback(Text.literal("Mod: " + (config.modEnabled ? "Enabled" : "Disabled")));
+                        context.getSource().sendFeedback(Text.literal("Server: " + serverKey + (config != baseConfig ? " (server profile active)" : " (base settings)")));
+                        context.getSource().sendFeedback(Text.literal("AFK Detection: " + (config.afkDetectionEnabled ? 
+                            (AfkDetector.isAfk() ? "AFK (idle " + AfkDetector.getIdleMillis() / 1000 + "s)" : "Active (AFK after " + config.afkIdleSeconds + "s idle)") : "Disabled (always automate)")));
                         context.getSource().sendFeedback(Text.literal("Sleep Failure Action: " + config.sleepFailureAction));
                         context.getSource().sendFeedback(Text.literal("Auto Respond: " + (config.autoRespond ? "Enabled" : "Disabled")));
+                        context.getSource().sendFeedback(Text.literal("Duplicate Messages Skipped: " + recentMessages.getDuplicateCount() + 
+                            (config.chatDedupWindowSeconds > 0 ? " (window " + config.chatDedupWindowSeconds + "s)" : " (dedup disabled)")));
+                        context.getSource().sendFeedback(Text.literal("Chat Flood Mode: " + (floodGuard.isFlooding() ? 
+                            "Active (" + floodGuard.getRate() + " msg/s, responses paused)" : "Off (starts above " + config.chatFloodThreshold + " msg/s)")));
                         context.getSource().sendFeedback(Text.literal("Disconnect Phrase: " + (config.disconnectPhraseEnabled ? "'" + config.disconnectPhrase + "'" : "Disabled")));
                         context.getSource().sendFeedback(Text.literal("Bed Interaction Range: 2 blocks (fixed)"));
                         context.getSource().sendFeedback(Text.literal("AutoEat: " + (config.autoEatEnabled ? "Enabled (threshold: " + config.autoEatHungerThreshold + "/20)" : "Disabled")));
+                        context.getSource().sendFeedback(Text.literal("AFK Render Mode: " + (config.afkRenderModeEnabled ? 
+                            (AfkRenderMode.isActive() ? "Active (" + config.afkRenderMaxFps + " FPS)" : "Standby") : "Disabled")));
+                        context.getSource().sendFeedback(Text.literal("AFK Resource Profile: " + (config.afkProfileEnabled ? 
+                            (AfkResourceProfile.isApplied() ? "Applied (view " + config.afkViewDistance + ", simulation " + config.afkSimulationDistance + ")" : "Standby") : "Disabled")));
                         
                         // Show timing info if in game
                         MinecraftClient client = MinecraftClient.getInstance();
                         if (client.world != null) {
                             long timeOfDay = client.world.getTimeOfDay() % DAY_LENGTH;
                             String timeStatus;
-                            if (timeOfDay >= NIGHT_START && timeOfDay <= NIGHT_END) {
+                            if (nightWindows.isNight(timeOfDay)) {
                                 timeStatus = "Night (sleepable)";
                             } else {
-                                int timeUntilNight = timeOfDay < NIGHT_START ? 
-                                    NIGHT_START - (int)timeOfDay : 
-                                    (DAY_LENGTH - (int)timeOfDay) + NIGHT_START;
+                                int timeUntilNight = nightWindows.ticksUntilNight(timeOfDay, 0);
                                 int nextCheckIn = Math.max(0, nextCheckTick - tickCounter);
                                 timeStatus = String.format("Day (night in %.1f seconds, next check in %.1f seconds)", 
                                     timeUntilNight / (float)TICKS_PER_SECOND, nextCheckIn / (float)TICKS_PER_SECOND);
                             }
                             context.getSource().sendFeedback(Text.literal("Current time: " + timeOfDay + " - " + timeStatus));
+                            context.getSource().sendFeedback(Text.literal(String.format("Night Window: %d-%d (time speed %.2fx)", 
+                                nightWindows.getStart(), nightWindows.getEnd(), nightWindows.getTimePerTick())));
+                            long now = System.currentTimeMillis();
+                            context.getSource().sendFeedback(Text.literal("Sleep Quorum: " + (sleepQuorum.isKnown(now) ? 
+                                sleepQuorum.getSleeping() + "/" + sleepQuorum.getRequired() + " sleeping, " + lastPlayerCount + " online (" + 
+                                sleepQuorum.getAgeMillis(now) / 1000 + "s ago)" : "Unknown (no recent sleep status from the server)")));
+                            Coordinator.Role role = coordinator.getRole();
+                            context.getSource().sendFeedback(Text.literal("Coordination: " + (!coordinator.isActive() ? "Off" :
+                                role == Coordinator.Role.LEADER ? "Leader (" + coordinator.getFollowerCount() + " followers)" :
+                                role == Coordinator.Role.FOLLOWER ? "Follower" : "Electing leader")));
                         }
                         
                         return 1;
                     }))
+                .then(ClientCommandManager.literal("perf")
+                    .executes(context -> {
+                        context.getSource().sendFeedback(Text.literal("=== AutoAFK Sleep Performance ==="));
+                        context.getSource().sendFeedback(Text.literal(String.format("Chat Prefilter: %d checked, %d passed to classification (%.1f%% hit rate)", 
+                            PerfStats.getPrefilterChecked(), PerfStats.getPrefilterPassed(), PerfStats.getPrefilterHitRate())));
+                        context.getSource().sendFeedback(Text.literal("Duplicate Messages Skipped: " + recentMessages.getDuplicateCount()));
+                        for (PerfStats.Subsystem subsystem : PerfStats.Subsystem.values()) {
+                            context.getSource().sendFeedback(Text.literal(String.format("%s: p50 %.1f / p95 %.1f / p99 %.1f µs", subsystem.getLabel(),
+                                PerfStats.getCostPercentile(subsystem, 0) / 1000.0, PerfStats.getCostPercentile(subsystem, 1) / 1000.0,
+                                PerfStats.getCostPercentile(subsystem, 2) / 1000.0)));
+                        }
+                        return 1;
+                    })
+                    .then(ClientCommandManager.literal("reset")
+                        .executes(context -> {
+                            PerfStats.reset();
+                            context.getSource().sendFeedback(Text.literal("Performance counters reset"));
+                            return 1;
+                        })))
                 .then(ClientCommandManager.literal("ui")
                     .executes(context -> {
                         MinecraftClient client = MinecraftClient.getInstance();
@@ -619,7 +1252,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                             .executes(context -> {
                                 String action = StringArgumentType.getString(context, "action");
                                 try {
-                                    config.sleepFailureAction = ModConfig.SleepFailureAction.valueOf(action.toUpperCase());
+                                    baseConfig.sleepFailureAction = ModConfig.SleepFailureAction.valueOf(action.toUpperCase());
                                     saveConfig();
                                     context.getSource().sendFeedback(Text.literal("Sleep failure action set to: " + action));
                                 } catch (IllegalArgumentException e) {
@@ -630,7 +1263,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("customCommand")
                         .then(ClientCommandManager.argument("command", StringArgumentType.greedyString())
                             .executes(context -> {
-                                config.customCommand = StringArgumentType.getString(context, "command");
+                                baseConfig.customCommand = StringArgumentType.getString(context, "command");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("Custom command set to: " + config.customCommand));
                                 return 1;
@@ -638,7 +1271,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("autoRespond")
                         .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
                             .executes(context -> {
-                                config.autoRespond = BoolArgumentType.getBool(context, "enabled");
+                                baseConfig.autoRespond = BoolArgumentType.getBool(context, "enabled");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("Auto respond " + (config.autoRespond ? "enabled" : "disabled")));
                                 return 1;
@@ -646,7 +1279,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("responseMessage")
                         .then(ClientCommandManager.argument("message", StringArgumentType.greedyString())
                             .executes(context -> {
-                                config.responseMessage = StringArgumentType.getString(context, "message");
+                                baseConfig.responseMessage = StringArgumentType.getString(context, "message");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("Response message set to: " + config.responseMessage));
                                 return 1;
@@ -654,7 +1287,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("disconnectPhrase")
                         .then(ClientCommandManager.argument("phrase", StringArgumentType.greedyString())
                             .executes(context -> {
-                                config.disconnectPhrase = StringArgumentType.getString(context, "phrase");
+                                baseConfig.disconnectPhrase = StringArgumentType.getString(context, "phrase");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("Disconnect phrase set to: " + config.disconnectPhrase));
                                 return 1;
@@ -662,7 +1295,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("autoEat")
                         .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
                             .executes(context -> {
-                                config.autoEatEnabled = BoolArgumentType.getBool(context, "enabled");
+                                baseConfig.autoEatEnabled = BoolArgumentType.getBool(context, "enabled");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("AutoEat " + (config.autoEatEnabled ? "enabled" : "disabled")));
                                 return 1;
@@ -670,7 +1303,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("autoEatThreshold")
                         .then(ClientCommandManager.argument("threshold", IntegerArgumentType.integer(1, 19))
                             .executes(context -> {
-                                config.autoEatHungerThreshold = IntegerArgumentType.getInteger(context, "threshold");
+                                baseConfig.autoEatHungerThreshold = IntegerArgumentType.getInteger(context, "threshold");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("AutoEat hunger threshold set to: " + config.autoEatHungerThreshold + "/20"));
                                 return 1;
@@ -678,7 +1311,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("autoEatStews")
                         .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
                             .executes(context -> {
-                                config.autoEatStews = BoolArgumentType.getBool(context, "enabled");
+                                baseConfig.autoEatStews = BoolArgumentType.getBool(context, "enabled");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("AutoEat stews/soups " + (config.autoEatStews ? "enabled" : "disabled")));
                                 return 1;
@@ -686,7 +1319,7 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("autoEatMinFood")
                         .then(ClientCommandManager.argument("value", IntegerArgumentType.integer(1, 20))
                             .executes(context -> {
-                                config.autoEatMinFoodValue = IntegerArgumentType.getInteger(context, "value");
+                                baseConfig.autoEatMinFoodValue = IntegerArgumentType.getInteger(context, "value");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("AutoEat minimum food value set to: " + config.autoEatMinFoodValue));
                                 return 1;
@@ -694,11 +1327,77 @@ public class AutoAFKSleep implements ClientModInitializer {
                     .then(ClientCommandManager.literal("autoEatDisconnect")
                         .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
                             .executes(context -> {
-                                config.autoEatDisconnectOnNoFood = BoolArgumentType.getBool(context, "enabled");
+                                baseConfig.autoEatDisconnectOnNoFood = BoolArgumentType.getBool(context, "enabled");
                                 saveConfig();
                                 context.getSource().sendFeedback(Text.literal("AutoEat disconnect on no food " + (config.autoEatDisconnectOnNoFood ? "enabled" : "disabled")));
                                 return 1;
                             })))
+                    .then(ClientCommandManager.literal("afkIdleSeconds")
+                        .then(ClientCommandManager.argument("seconds", IntegerArgumentType.integer(10, 3600))
+                            .executes(context -> {
+                                baseConfig.afkIdleSeconds = IntegerArgumentType.getInteger(context, "seconds");
+                                saveConfig();
+                                context.getSource().sendFeedback(Text.literal("AFK idle time set to: " + config.afkIdleSeconds + " seconds"));
+                                return 1;
+                            })))
+                    .then(ClientCommandManager.literal("chatLanguage")
+                        .then(ClientCommandManager.argument("language", StringArgumentType.word())
+                            .suggests((context, builder) -> {
+                                builder.suggest("auto");
+                                builder.suggest("en_us");
+                                builder.suggest("de_de");
+                                builder.suggest("es_es");
+                                return builder.buildFuture();
+                            })
+                            .executes(context -> {
+                                String language = StringArgumentType.getString(context, "language").toLowerCase();
+                                baseConfig.chatLanguage = language.equals("auto") ? "" : language;
+                                saveConfig();
+                                context.getSource().sendFeedback(Text.literal("Chat keyword language set to: " + chatKeywords.getLanguage()));
+                                return 1;
+                            })))
+                    .then(ClientCommandManager.literal("autoReconnect")
+                        .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
+                            .executes(context -> {
+                                baseConfig.reconnectEnabled = BoolArgumentType.getBool(context, "enabled");
+                                saveConfig();
+                                context.getSource().sendFeedback(Text.literal("Auto-reconnect " + (config.reconnectEnabled ? "enabled" : "disabled")));
+                                return 1;
+                            })))
+                    .then(ClientCommandManager.literal("coordination")
+                        .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
+                            .executes(context -> {
+                                baseConfig.coordinationEnabled = BoolArgumentType.getBool(context, "enabled");
+                                saveConfig();
+                                context.getSource().sendFeedback(Text.literal("Coordination " + (config.coordinationEnabled ? "enabled" : "disabled")));
+                                return 1;
+                            })))
+                    .then(ClientCommandManager.literal("hud")
+                        .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
+                            .executes(context -> {
+                                baseConfig.hudOverlayEnabled = BoolArgumentType.getBool(context, "enabled");
+                                saveConfig();
+                                context.getSource().sendFeedback(Text.literal("HUD status line " + (config.hudOverlayEnabled ? "enabled" : "disabled")));
+                                return 1;
+                            })))
+                    .then(ClientCommandManager.literal("controlPort")
+                        .then(ClientCommandManager.argument("port", IntegerArgumentType.integer(0, 65535))
+                            .executes(context -> {
+                                baseConfig.controlPort = IntegerArgumentType.getInteger(context, "port");
+                                baseConfig.validate();
+                                saveConfig();
+                                context.getSource().sendFeedback(Text.literal(baseConfig.controlPort == 0 ? "Control socket closed" :
+                                    "Control socket " + (controlServer.isActive() ? "listening" : "failed to open") + " on 127.0.0.1:" + baseConfig.controlPort));
+                                return 1;
+                            })))
+                    .then(ClientCommandManager.literal("afkRenderMode")
+                        .then(ClientCommandManager.argument("enabled", BoolArgumentType.bool())
+                            .executes(context -> {
+                                baseConfig.afkRenderModeEnabled = BoolArgumentType.getBool(context, "enabled");
+                                saveConfig();
+                                context.getSource().sendFeedback(Text.literal("AFK render mode " + (config.afkRenderModeEnabled ? "enabled" : "disabled")));
+                                return 1;
+                            })))
             ));
         });
     }
@@ -707,16 +1406,47 @@ public class AutoAFKSleep implements ClientModInitializer {
         return instance;
     }
     
+    /**
+     * @return the base configuration, which commands and the config screen edit
+     */
     public ModConfig getConfig() {
-        return config;
+        return baseConfig;
     }
     
     public void saveConfig() {
-        config.save();
-        configureAutoEat();
+        baseConfig.save();
+        compiledMatchers.clear();
+        applyConfig();
         LOGGER.info("Configuration saved");
     }
     
+    /**
+     * Resolves the effective settings for the current server and pushes them to every subsystem.
+     */
+    private void applyConfig() {
+        config = baseConfig.forServer(serverKey);
+        configureAutoEat();
+        configureResponseCooldowns();
+        configureOutboundQueue();
+        configureResponseTemplate();
+        configureChatMatcher();
+        recentMessages.configure(config.chatDedupWindowSeconds);
+        floodGuard.configure(config.chatFloodThreshold);
+        configureCoordinator();
+        controlServer.configure(baseConfig.controlPort);
+    }
+    
+    private void configureCoordinator() {
+        // Joined on connect to a multiplayer server, left on disconnect
+        boolean wanted = config.coordinationEnabled && !SINGLEPLAYER_KEY.equals(serverKey) &&
+            MinecraftClient.getInstance().getNetworkHandler() != null;
+        if (wanted && !coordinator.isActive()) {
+            coordinator.start(serverKey, chatPlayerName);
+        } else if (!wanted && coordinator.isActive()) {
+            coordinator.stop();
+        }
+    }
+    
     private void configureAutoEat() {
         if (autoEat != null) {
             autoEat.setEnabled(config.autoEatEnabled);
@@ -727,67 +1457,48 @@ public class AutoAFKSleep implements ClientModInitializer {
         }
     }
     
-    // ========== Helper Methods ==========
-    
-    private boolean isDirectMessageToPlayer(String messageText, String playerNameLower) {
-        // Quick checks first
-        if (messageText.contains(" whispers to you:") ||
-            messageText.contains(" whispers:") ||
-            messageText.contains(" -> me]")) {
-            return true;
-        }
-        
-        // Player name checks
-        if (messageText.contains("/msg " + playerNameLower) ||
-            messageText.contains("/tell " + playerNameLower) ||
-            messageText.contains("/w " + playerNameLower) ||
-            messageText.contains(" -> " + playerNameLower) ||
-            messageText.contains("@" + playerNameLower)) {
-            return true;
+    private void configureChatMatcher() {
+        String language = config.chatLanguage.isEmpty() ? getGameLanguage() : config.chatLanguage;
+        if (chatKeywords == null || !chatKeywords.getLanguage().equals(language)) {
+            chatKeywords = ChatKeywords.load(language);
         }
-        
-        // Start/end checks
-        if (messageText.startsWith(playerNameLower + ",") ||
-            messageText.startsWith(playerNameLower + ":") ||
-            messageText.endsWith(" " + playerNameLower) ||
-            messageText.endsWith(" " + playerNameLower + "?")) {
-            return true;
+        String cacheKey = serverKey + '|' + language + '|' + chatPlayerName;
+        chatMatcher = compiledMatchers.get(cacheKey);
+        if (chatMatcher == null) {
+            String disconnectPhrase = config.disconnectPhraseEnabled ? config.disconnectPhrase : null;
+            chatMatcher = ChatMatcher.compile(chatKeywords.getSleepKeywords(), chatKeywords.getSystemPatterns(), 
+                disconnectPhrase, chatPlayerName,
+                config.findChatFormatProfile(serverKey), config.chatRules);
+            compiledMatchers.put(cacheKey, chatMatcher);
         }
-        
-        return false;
     }
     
-    private boolean isOverworldDimension(MinecraftClient client) {
-        if (client.world == null) return false;
-        
-        // Cache dimension check for performance (check every 5 seconds)
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastDimensionCheck < 5000 && cachedDimension != null) {
-            return !cachedDimension.contains("the_nether") && !cachedDimension.contains("the_end");
-        }
-        
-        cachedDimension = client.world.getRegistryKey().getValue().toString();
-        lastDimensionCheck = currentTime;
-        
-        boolean isOverworld = !cachedDimension.contains("the_nether") && !cachedDimension.contains("the_end");
-        if (!isOverworld) {
-            LOGGER.debug("In dimension {}, sleeping disabled (beds explode!)", cachedDimension);
-        }
-        return isOverworld;
+    private static String getGameLanguage() {
+        // Options aren't loaded yet during early init; the matcher is rebuilt on join
+        MinecraftClient client = MinecraftClient.getInstance();
+        return client != null && client.options != null ? client.options.language : ChatKeywords.DEFAULT_LANGUAGE;
+    }
+    
+    private void configureResponseTemplate() {
+        responseTemplate = compiledTemplates.computeIfAbsent(config.responseMessage, ResponseTemplate::compile);
+    }
+    
+    private void configureOutboundQueue() {
+        outboundQueue.configure(config.chatRateLimitBurst, config.chatRateLimitPerMinute);
+    }
+    
+    private void configureResponseCooldowns() {
+        responseCooldowns.configure(config.chatResponseCooldownSeconds, 
+            config.globalResponseLimit, config.globalResponseWindowSeconds);
     }
     
+    // ========== Helper Methods ==========
+    
     private int calculateTicksUntilNight(long timeOfDay) {
-        int ticksUntilNight;
-        
         int wakeUpMarginTicks = config.wakeUpMarginSeconds * TICKS_PER_SECOND;
         
-        if (timeOfDay < NIGHT_START) {
-            // Morning/afternoon - night is coming today
-            ticksUntilNight = NIGHT_START - (int)timeOfDay - wakeUpMarginTicks;
-        } else {
-            // Late night (past NIGHT_END) - night is tomorrow
-            ticksUntilNight = (DAY_LENGTH - (int)timeOfDay) + NIGHT_START - wakeUpMarginTicks;
-        }
+        // Learned window and time speed of this world (vanilla night until calibrated)
+        int ticksUntilNight = nightWindows.ticksUntilNight(timeOfDay, wakeUpMarginTicks);
         
         // Ensure minimum delay
         return Math.max(ticksUntilNight, TICKS_PER_SECOND);
@@ -795,7 +1506,7 @@ public class AutoAFKSleep implements ClientModInitializer {
     
     private int calculateTicksUntilNextNight(long timeOfDay) {
         int wakeUpMarginTicks = config.wakeUpMarginSeconds * TICKS_PER_SECOND;
-        return (DAY_LENGTH - (int)timeOfDay) + NIGHT_START - wakeUpMarginTicks;
+        return Math.max(nightWindows.ticksUntilNextNight(timeOfDay, wakeUpMarginTicks), TICKS_PER_SECOND);
     }
     
     private List<BlockPos> findReachableBeds(MinecraftClient client, ClientPlayerEntity player) {
@@ -832,22 +1543,21 @@ public class AutoAFKSleep implements ClientModInitializer {
         return reachableBeds;
     }
     
-    private void scheduleDelayedResponse(MinecraftClient client, String message, long delayMs) {
-        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
-            client.execute(() -> {
-                sendChatMessage(client, message);
-                
-                // Send follow-up message if disconnect phrase is enabled
-                if (config.disconnectPhraseEnabled && config.disconnectPhrase != null && !config.disconnectPhrase.isEmpty()) {
-                    CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS).execute(() -> {
-                        client.execute(() -> {
-                            sendChatMessage(client, "To force me to disconnect say: " + config.disconnectPhrase);
-                        });
-                    });
-                }
-            });
-        });
+    private static BlockPos getBedHead(ClientWorld world, BlockPos bedPos) {
+        BlockState state = world.getBlockState(bedPos);
+        if (state.getBlock() instanceof BedBlock && state.get(BedBlock.PART) == BedPart.FOOT) {
+            return bedPos.offset(state.get(BedBlock.FACING));
+        }
+        return bedPos;
+    }
+    
+    private void scheduleDelayedResponse(String message, int delayTicks) {
+        outboundQueue.enqueue(OutboundChatQueue.Kind.CHAT, message, delayTicks, null);
         
-        lastChatResponse = System.currentTimeMillis();
+        // Send follow-up message if disconnect phrase is enabled
+        if (config.disconnectPhraseEnabled && config.disconnectPhrase != null && !config.disconnectPhrase.isEmpty()) {
+            outboundQueue.enqueue(OutboundChatQueue.Kind.CHAT, 
+                DISCONNECT_INSTRUCTION + config.disconnectPhrase, delayTicks + 10, null);
+        }
     }
 }
\ No newline at end of file
@@ -38,6 +38,14 @@ public class AutoEat {
     private int originalSlot = -1;
     private boolean hasWarnedNoFood = false;
     private boolean needsSlotSwitch = false;
+    private FlightEvents.AutoEatCycle cycleEvent = null;
+    private Item cycleFood = null; // Name resolved only if the event is committed
+    
+    // Food forecast - hunger points lost between meals over the time it took
+    private int lastHungerAfterMeal = -1;
+    private long lastMealMillis = 0;
+    private int hungerPointsConsumed = 0;
+    private long consumptionMillis = 0;
     
     // Configuration values
     private boolean enabled = true;
@@ -137,6 +145,14 @@ public class AutoEat {
         // Save current slot
         originalSlot = currentSlot;
         targetFoodSlot = foodSlot;
+        recordConsumptionSinceLastMeal(player.getHungerManager().getFoodLevel());
+        
+        // Cycle event spans slot switch and eating, committed in finishEating
+        cycleEvent = new FlightEvents.AutoEatCycle();
+        cycleEvent.begin();
+        cycleEvent.slot = foodSlot;
+        cycleFood = foodStack.getItem();
+        cycleEvent.hungerBefore = player.getHungerManager().getFoodLevel();
         
         // Switch to food slot if needed
         if (originalSlot != foodSlot) {
@@ -177,6 +193,7 @@ public class AutoEat {
             LOGGER.warn("No food found in current slot {}", currentSlot);
             targetFoodSlot = -1;
             needsSlotSwitch = false;
+            cycleEvent = null;
             return;
         }
         
@@ -219,6 +236,19 @@ public class AutoEat {
         LOGGER.info("Finished eating (new hunger: {}/20)", 
             player.getHungerManager().getFoodLevel());
         
+        if (cycleEvent != null && cycleEvent.shouldCommit()) {
+            cycleEvent.food = cycleFood.getName().getString();
+            cycleEvent.hungerAfter = player.getHungerManager().getFoodLevel();
+            cycleEvent.eatingTicks = eatingTicks;
+            cycleEvent.commit();
+        }
+        cycleEvent = null;
+        cycleFood = null;
+        
+        lastHungerAfterMeal = player.getHungerManager().getFoodLevel();
+        lastMealMillis = System.currentTimeMillis();
+        PerfStats.recordAutoEatCycle();
+        
         // Note: We don't restore the original slot since we swapped items
         // The player's original item is now in the food's old slot
         
@@ -255,6 +285,7 @@ public class AutoEat {
     }
     
     private void disconnect(MinecraftClient client, String reason) {
+        ReconnectManager.markIntentionalDisconnect();
         client.execute(() -> {
             if (client.world != null && client.getNetworkHandler() != null) {
                 LOGGER.info("Disconnecting from server: {}", reason);
@@ -278,18 +309,12 @@ public class AutoEat {
             FoodComponent food = stack.get(DataComponentTypes.FOOD);
             if (food == null) continue;
             
-            // Skip poisonous food
-            if (isPoisonousFood(item)) {
-                LOGGER.debug("Skipping poisonous food: {}", item.getName().getString());
+            // Skip poisonous food, food below the minimum value and stews/soups if configured
+            if (!isEdible(item, food)) {
+                LOGGER.debug("Skipping food: {}", item.getName().getString());
                 continue;
             }
             
-            // Filter by minimum food value
-            if (food.nutrition() < minFoodValue) continue;
-            
-            // Skip stews/soups if configured
-            if (!eatStew && isStewOrSoup(item)) continue;
-            
             // Calculate food score
             int score = calculateFoodScore(food, item);
             foodCandidates.add(new FoodCandidate(i, score, food.nutrition(), item));
@@ -305,6 +330,42 @@ public class AutoEat {
         return foodCandidates.get(0).slot();
     }
     
+    private void recordConsumptionSinceLastMeal(int hungerNow) {
+        if (lastHungerAfterMeal >= 0 && lastHungerAfterMeal > hungerNow) {
+            hungerPointsConsumed += lastHungerAfterMeal - hungerNow;
+            consumptionMillis += System.currentTimeMillis() - lastMealMillis;
+        }
+        lastHungerAfterMeal = -1;
+    }
+    
+    /**
+     * Estimates how many real-time hours the edible hotbar food lasts at the
+     * hunger drain observed between meals.
+     * @return hours left, or -1 until at least one full meal-to-meal interval was observed
+     */
+    public double getFoodHoursLeft(ClientPlayerEntity player) {
+        if (hungerPointsConsumed == 0 || consumptionMillis == 0) {
+            return -1;
+        }
+        
+        // Everything AutoEat would be willing to eat, plus the hunger above the threshold
+        int availablePoints = Math.max(0, player.getHungerManager().getFoodLevel() - hungerThreshold);
+        PlayerInventory inventory = player.getInventory();
+        for (int i = 0; i < 9; i++) {
+            ItemStack stack = inventory.getStack(i);
+            FoodComponent food = stack.get(DataComponentTypes.FOOD);
+            if (food == null || !isEdible(stack.getItem(), food)) continue;
+            availablePoints += food.nutrition() * stack.getCount();
+        }
+        
+        double pointsPerHour = hungerPointsConsumed * 3_600_000.0 / consumptionMillis;
+        return availablePoints / pointsPerHour;
+    }
+    
+    private boolean isEdible(Item item, FoodComponent food) {
+        return !isPoisonousFood(item) && food.nutrition() >= minFoodValue && (eatStew || !isStewOrSoup(item));
+    }
+    
     private boolean isPoisonousFood(Item item) {
         return item == Items.POISONOUS_POTATO || 
                item == Items.SPIDER_EYE || 
@@ -369,9 +430,39 @@ public class AutoEat {
             isEating = false;
             eatingTicks = 0;
             cooldownTicks = POST_EAT_DELAY_TICKS;
+            cycleEvent = null;
         }
     }
     
+    /**
+     * Learned food forecast state, saved with an interrupted session.
+     */
+    public static class State {
+        public int lastHungerAfterMeal = -1;
+        public long lastMealMillis = 0;
+        public int hungerPointsConsumed = 0;
+        public long consumptionMillis = 0;
+    }
+    
+    public State saveState() {
+        State state = new State();
+        state.lastHungerAfterMeal = lastHungerAfterMeal;
+        state.lastMealMillis = lastMealMillis;
+        state.hungerPointsConsumed = hungerPointsConsumed;
+        state.consumptionMillis = consumptionMillis;
+        return state;
+    }
+    
+    /**
+     * @param offlineMillis time spent disconnected, during which no hunger drains
+     */
+    public void restoreState(State state, long offlineMillis) {
+        lastHungerAfterMeal = state.lastHungerAfterMeal;
+        lastMealMillis = state.lastMealMillis + offlineMillis;
+        hungerPointsConsumed = state.hungerPointsConsumed;
+        consumptionMillis = state.consumptionMillis;
+    }
+    
     // Configuration setters
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
@@ -0,0 +1,128 @@
+package com.johnflyiii.autoafksleep;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.network.message.MessageType;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextContent;
+import net.minecraft.text.TranslatableTextContent;
+
+import java.util.UUID;
+
+/**
+ * Structural chat classification - reads the message type from the CHAT
+ * event parameters and the translation key at the root of the Text component
+ * tree instead of guessing from the flattened string. Vanilla formats are
+ * classified exactly and in constant time; anything else (plugin or proxy
+ * formats sent as literal text) comes back UNKNOWN and is left to the
+ * server's {@link ModConfig.ChatFormatProfile} markers.
+ */
+public final class ChatClassifier {
+    public enum Kind {
+        DIRECT,
+        PUBLIC,
+        SYSTEM,
+        OWN,
+        UNKNOWN
+    }
+
+    private ChatClassifier() {}
+
+    /**
+     * @param params message type parameters from the CHAT event, or null for GAME messages
+     * @param sender sender profile from the CHAT event, or null
+     * @param self our own profile id
+     */
+    public static Kind classify(Text message, MessageType.Parameters params, GameProfile sender, UUID self) {
+        if (params != null) {
+            if (sender != null && sender.getId().equals(self)) {
+                return Kind.OWN;
+            }
+            return classifyMessageType(params);
+        }
+        return classifyTranslationKey(message.getContent());
+    }
+
+    private static Kind classifyMessageType(MessageType.Parameters params) {
+        if (matches(params, MessageType.MSG_COMMAND_INCOMING) || matches(params, MessageType.TEAM_MSG_COMMAND_INCOMING)) {
+            return Kind.DIRECT;
+        }
+        if (matches(params, MessageType.MSG_COMMAND_OUTGOING) || matches(params, MessageType.TEAM_MSG_COMMAND_OUTGOING)) {
+            return Kind.OWN;
+        }
+        // Player chat, /me and /say from players
+        return Kind.PUBLIC;
+    }
+
+    private static boolean matches(MessageType.Parameters params, RegistryKey<MessageType> key) {
+        return params.type().matchesKey(key);
+    }
+
+    private static Kind classifyTranslationKey(TextContent content) {
+        if (!(content instanceof TranslatableTextContent translatable)) {
+            return Kind.UNKNOWN;
+        }
+        String key = translatable.getKey();
+        switch (key) {
+            case "commands.message.display.incoming":
+                return Kind.DIRECT;
+            case "commands.message.display.outgoing":
+                return Kind.OWN;
+            case "chat.type.text":
+            case "chat.type.emote":
+                return Kind.PUBLIC;
+            case "chat.type.announcement":
+            case "multiplayer.player.joined":
+            case "multiplayer.player.joined.renamed":
+            case "multiplayer.player.left":
+                return Kind.SYSTEM;
+            default:
+                if (key.startsWith("death.") || key.startsWith("chat.type.advancement.")) {
+                    return Kind.SYSTEM;
+                }
+                return Kind.UNKNOWN;
+        }
+    }
+
+    /**
+     * @return the body (last translation argument) of a vanilla chat line sent as a
+     *         game message by the given player, or null when the structure doesn't give one
+     */
+    public static String ownChatBody(Text message, String playerName) {
+        if (playerName != null && message.getContent() instanceof TranslatableTextContent translatable
+                && translatable.getKey().startsWith("chat.type.")) {
+            Object[] args = translatable.getArgs();
+            if (args.length >= 2 && playerName.equalsIgnoreCase(argString(args[0]))) {
+                return argString(args[args.length - 1]);
+            }
+        }
+        return null;
+    }
+
+    private static String argString(Object arg) {
+        return arg instanceof Text text ? text.getString() : String.valueOf(arg);
+    }
+
+    /**
+     * Matches a server address against a profile pattern where '*' matches any run of characters.
+     */
+    public static boolean matchesServer(String pattern, String address) {
+        String[] parts = pattern.toLowerCase().split("\\*", -1);
+        if (parts.length == 1) {
+            return parts[0].equals(address);
+        }
+        if (!address.startsWith(parts[0])) {
+            return false;
+        }
+        int pos = parts[0].length();
+        for (int i = 1; i < parts.length - 1; i++) {
+            int found = address.indexOf(parts[i], pos);
+            if (found < 0) {
+                return false;
+            }
+            pos = found + parts[i].length();
+        }
+        String last = parts[parts.length - 1];
+        return address.length() - last.length() >= pos && address.endsWith(last);
+    }
+}
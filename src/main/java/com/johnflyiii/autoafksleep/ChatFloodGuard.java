@@ -0,0 +1,129 @@
+package com.johnflyiii.autoafksleep;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects chat floods (raids, server events) from the incoming message rate.
+ *
+ * The rate is counted in one-second buckets. Flood mode starts when a second
+ * exceeds the threshold and ends only after several calm seconds below half
+ * of it, so it doesn't flap. While flooding, per-message logging is replaced
+ * by a periodic summary.
+ */
+public class ChatFloodGuard {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-flood");
+    private static final long BUCKET_MS = 1000;
+    private static final int CALM_SECONDS_TO_EXIT = 5;
+    private static final long SUMMARY_INTERVAL_MS = 10_000;
+
+    private int threshold = 30;
+    private long bucketStart = 0;
+    private int bucketCount = 0;
+    private int lastRate = 0;
+
+    private boolean flooding = false;
+    private int calmSeconds = 0;
+    private long summaryStart = 0;
+    private int summaryMessages = 0;
+    private int summaryHandled = 0;
+
+    /**
+     * @param threshold messages per second that start flood mode
+     */
+    public void configure(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public void recordMessage(long now) {
+        update(now);
+        bucketCount++;
+        if (flooding) {
+            summaryMessages++;
+        }
+    }
+
+    /**
+     * Counts a high-priority message (disconnect phrase, whisper) handled during a flood.
+     */
+    public void recordHandled() {
+        if (flooding) {
+            summaryHandled++;
+        }
+    }
+
+    /**
+     * Rolls the rate buckets forward; call every tick so flood mode also ends when chat goes silent.
+     */
+    public void update(long now) {
+        if (bucketStart == 0) {
+            bucketStart = now;
+        }
+        long elapsed = (now - bucketStart) / BUCKET_MS;
+        if (elapsed > 0) {
+            // Whole seconds without a message count as quiet ones
+            lastRate = elapsed == 1 ? bucketCount : 0;
+            bucketStart += elapsed * BUCKET_MS;
+            bucketCount = 0;
+            evaluate(now, (int) Math.min(elapsed, CALM_SECONDS_TO_EXIT));
+        }
+
+        if (flooding && now - summaryStart >= SUMMARY_INTERVAL_MS) {
+            logSummary(now, "ongoing");
+        }
+    }
+
+    public boolean isFlooding() {
+        return flooding;
+    }
+
+    /**
+     * @return messages received in the last full second
+     */
+    public int getRate() {
+        return lastRate;
+    }
+
+    public void reset() {
+        if (flooding) {
+            logSummary(System.currentTimeMillis(), "ended (disconnected)");
+        }
+        flooding = false;
+        calmSeconds = 0;
+        bucketStart = 0;
+        bucketCount = 0;
+        lastRate = 0;
+    }
+
+    private void evaluate(long now, int seconds) {
+        if (!flooding) {
+            if (lastRate > threshold) {
+                flooding = true;
+                calmSeconds = 0;
+                summaryStart = now;
+                summaryMessages = 0;
+                summaryHandled = 0;
+                LOGGER.warn("Chat flood detected ({} msg/s) - only disconnect phrase and whispers are handled, auto-responses paused", lastRate);
+            }
+            return;
+        }
+
+        if (lastRate * 2 < threshold) {
+            calmSeconds += seconds;
+            if (calmSeconds >= CALM_SECONDS_TO_EXIT) {
+                logSummary(now, "ended");
+                flooding = false;
+            }
+        } else {
+            calmSeconds = 0;
+        }
+    }
+
+    private void logSummary(long now, String state) {
+        LOGGER.info("Chat flood {}: {} messages in {}s, {} high-priority handled",
+            state, summaryMessages, (now - summaryStart) / 1000, summaryHandled);
+        summaryStart = now;
+        summaryMessages = 0;
+        summaryHandled = 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.johnflyiii.autoafksleep;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sleep keywords and system message patterns for a chat language.
+ *
+ * The lists are stored as '|'-separated entries in the mod's language files
+ * (assets/autoafksleep/lang/&lt;code&gt;.json), so a new language only needs a
+ * new file. English is always included since many servers and plugins speak
+ * it regardless of their players' language.
+ */
+public final class ChatKeywords {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-keywords");
+    private static final String LANG_PATH = "/assets/autoafksleep/lang/";
+    private static final String SLEEP_KEYWORDS_KEY = "autoafksleep.chat.sleep_keywords";
+    private static final String SYSTEM_PATTERNS_KEY = "autoafksleep.chat.system_patterns";
+    public static final String DEFAULT_LANGUAGE = "en_us";
+
+    private final String language;
+    private final Set<String> sleepKeywords = new LinkedHashSet<>();
+    private final Set<String> systemPatterns = new LinkedHashSet<>();
+
+    private ChatKeywords(String language) {
+        this.language = language;
+    }
+
+    /**
+     * @param language language code such as "de_de"; unknown languages fall back to English only
+     */
+    public static ChatKeywords load(String language) {
+        ChatKeywords keywords = new ChatKeywords(language);
+        keywords.merge(DEFAULT_LANGUAGE);
+        if (!DEFAULT_LANGUAGE.equals(language) && !keywords.merge(language)) {
+            LOGGER.warn("No chat keywords for language '{}', using English only", language);
+        }
+        LOGGER.info("Loaded {} sleep keywords and {} system patterns for '{}'",
+            keywords.sleepKeywords.size(), keywords.systemPatterns.size(), language);
+        return keywords;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public Set<String> getSleepKeywords() {
+        return sleepKeywords;
+    }
+
+    public Set<String> getSystemPatterns() {
+        return systemPatterns;
+    }
+
+    private boolean merge(String language) {
+        try (InputStream in = ChatKeywords.class.getResourceAsStream(LANG_PATH + language + ".json")) {
+            if (in == null) {
+                return false;
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                JsonObject lang = JsonParser.parseReader(reader).getAsJsonObject();
+                addEntries(lang.get(SLEEP_KEYWORDS_KEY), sleepKeywords);
+                addEntries(lang.get(SYSTEM_PATTERNS_KEY), systemPatterns);
+                return true;
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to load chat keywords for '{}'", language, e);
+            return false;
+        }
+    }
+
+    private static void addEntries(JsonElement value, Set<String> target) {
+        if (value == null || !value.isJsonPrimitive()) {
+            return;
+        }
+        for (String entry : value.getAsString().split("\\|")) {
+            if (!entry.isBlank()) {
+                target.add(entry.toLowerCase());
+            }
+        }
+    }
+}
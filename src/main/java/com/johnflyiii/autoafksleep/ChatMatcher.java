@@ -0,0 +1,106 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.text.StringVisitable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Every chat needle the mod cares about - sleep keywords, system message
+ * patterns, the disconnect phrase, our player name, the server's format
+ * profile markers and the user's trigger rules - compiled into one
+ * {@link KeywordAutomaton}, so a message is classified in a single linear pass.
+ *
+ * A Bloom filter over the same needles ({@link ChatPrefilter}) rejects most
+ * unrelated chat before the message is even flattened to a string.
+ *
+ * User rules form a decision table: rule bits are pre-masked per message
+ * scope, and the first rule (in config order) that matched and allows the
+ * scope wins.
+ */
+public final class ChatMatcher {
+    public static final long SLEEP_KEYWORD = 1L;
+    public static final long SYSTEM_PATTERN = 1L << 1;
+    public static final long DISCONNECT_PHRASE = 1L << 2;
+    public static final long DIRECT_MESSAGE_MARKER = 1L << 3;
+    public static final long PLAYER_NAME = 1L << 4;
+
+    private static final int RULE_BASE_BIT = 5;
+    public static final int MAX_RULES = KeywordAutomaton.MAX_BITS - RULE_BASE_BIT;
+
+    private final KeywordAutomaton automaton;
+    private final ChatPrefilter prefilter;
+    private final List<ModConfig.ChatRule> rules;
+    // Indexed by the scope ordinal of the message (DM, PUBLIC, SYSTEM)
+    private final long[] ruleMaskByScope = new long[3];
+
+    private ChatMatcher(KeywordAutomaton automaton, ChatPrefilter prefilter, List<ModConfig.ChatRule> rules) {
+        this.automaton = automaton;
+        this.prefilter = prefilter;
+        this.rules = rules;
+        for (int i = 0; i < rules.size(); i++) {
+            ModConfig.RuleScope scope = rules.get(i).scope;
+            for (ModConfig.RuleScope messageScope : new ModConfig.RuleScope[] {
+                    ModConfig.RuleScope.DM, ModConfig.RuleScope.PUBLIC, ModConfig.RuleScope.SYSTEM}) {
+                if (scope == ModConfig.RuleScope.ANY || scope == messageScope) {
+                    ruleMaskByScope[messageScope.ordinal()] |= 1L << (RULE_BASE_BIT + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param disconnectPhrase the phrase to watch for, or null when disabled
+     * @param playerName our own name, matched as a mention
+     * @param profile chat format profile of the current server
+     */
+    public static ChatMatcher compile(Collection<String> sleepKeywords, Collection<String> systemPatterns,
+                                      String disconnectPhrase, String playerName,
+                                      ModConfig.ChatFormatProfile profile, List<ModConfig.ChatRule> rules) {
+        KeywordAutomaton.Builder builder = KeywordAutomaton.builder()
+            .addAll(sleepKeywords, 0)
+            .addAll(systemPatterns, 1)
+            .addAll(profile.systemMarkers, 1)
+            .add(disconnectPhrase, 2)
+            .addAll(profile.directMessageMarkers, 3)
+            .add(playerName, 4);
+
+        List<String> needles = new ArrayList<>(sleepKeywords);
+        needles.addAll(systemPatterns);
+        needles.addAll(profile.systemMarkers);
+        needles.add(disconnectPhrase);
+        needles.addAll(profile.directMessageMarkers);
+        needles.add(playerName);
+
+        List<ModConfig.ChatRule> compiled = new ArrayList<>(rules.subList(0, Math.min(rules.size(), MAX_RULES)));
+        for (int i = 0; i < compiled.size(); i++) {
+            builder.add(compiled.get(i).pattern, RULE_BASE_BIT + i);
+            needles.add(compiled.get(i).pattern);
+        }
+        return new ChatMatcher(builder.build(), ChatPrefilter.build(needles), compiled);
+    }
+
+    /**
+     * @return false if the message cannot match any needle, so {@link #scan} would return 0
+     */
+    public boolean mightMatch(StringVisitable message) {
+        return prefilter.mightMatch(message);
+    }
+
+    public long scan(CharSequence message) {
+        return automaton.scan(message);
+    }
+
+    /**
+     * @param scope the message's scope - DM, PUBLIC or SYSTEM
+     * @return the first user rule matched by the scan result for this scope, or null
+     */
+    public ModConfig.ChatRule firstRule(long matches, ModConfig.RuleScope scope) {
+        long hits = matches & ruleMaskByScope[scope.ordinal()];
+        if (hits == 0) {
+            return null;
+        }
+        return rules.get(Long.numberOfTrailingZeros(hits) - RULE_BASE_BIT);
+    }
+}
@@ -0,0 +1,97 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.text.StringVisitable;
+
+import java.util.Optional;
+
+/**
+ * Cheap first stage for chat classification: a Bloom filter over the leading
+ * n-gram of every needle the matcher knows.
+ *
+ * A message that contains a needle must contain that needle's leading n-gram,
+ * so a message with no n-gram in the filter cannot match anything and skips
+ * the full scan. The check walks the Text component tree directly with a
+ * rolling n-gram - no flattened string, no allocation.
+ */
+public final class ChatPrefilter {
+    private static final int MAX_GRAM = 3;
+    private static final int BITS = 2048;
+    private static final Optional<Boolean> FOUND = Optional.of(Boolean.TRUE);
+
+    private final long[] filter = new long[BITS / 64];
+    private final int gramLength;
+    private final long gramMask;
+
+    // Scan state, reused by the visitor (client thread only)
+    private long gram;
+    private int charsSeen;
+    private final StringVisitable.Visitor<Boolean> visitor = this::visitSegment;
+
+    private ChatPrefilter(int gramLength) {
+        this.gramLength = gramLength;
+        this.gramMask = gramLength >= 4 ? -1L : (1L << (16 * gramLength)) - 1;
+    }
+
+    /**
+     * @param needles every keyword the matcher looks for; null and empty entries are ignored
+     */
+    public static ChatPrefilter build(Iterable<String> needles) {
+        int shortest = MAX_GRAM;
+        for (String needle : needles) {
+            if (needle != null && !needle.isEmpty()) {
+                shortest = Math.min(shortest, needle.length());
+            }
+        }
+
+        ChatPrefilter prefilter = new ChatPrefilter(shortest);
+        for (String needle : needles) {
+            if (needle != null && !needle.isEmpty()) {
+                long gram = 0;
+                for (int i = 0; i < shortest; i++) {
+                    gram = (gram << 16) | Character.toLowerCase(needle.charAt(i));
+                }
+                prefilter.insert(gram);
+            }
+        }
+        return prefilter;
+    }
+
+    /**
+     * @return false if the text cannot contain any needle
+     */
+    public boolean mightMatch(StringVisitable text) {
+        gram = 0;
+        charsSeen = 0;
+        return text.visit(visitor).isPresent();
+    }
+
+    private Optional<Boolean> visitSegment(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            gram = ((gram << 16) | Character.toLowerCase(segment.charAt(i))) & gramMask;
+            if (++charsSeen >= gramLength && contains(gram)) {
+                return FOUND;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void insert(long gram) {
+        long hash = mix(gram);
+        int first = (int) (hash & (BITS - 1));
+        int second = (int) ((hash >>> 32) & (BITS - 1));
+        filter[first >>> 6] |= 1L << first;
+        filter[second >>> 6] |= 1L << second;
+    }
+
+    private boolean contains(long gram) {
+        long hash = mix(gram);
+        int first = (int) (hash & (BITS - 1));
+        int second = (int) ((hash >>> 32) & (BITS - 1));
+        return (filter[first >>> 6] & (1L << first)) != 0 && (filter[second >>> 6] & (1L << second)) != 0;
+    }
+
+    private static long mix(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        return value ^ (value >>> 29);
+    }
+}
@@ -27,6 +27,10 @@ public class ConfigScreen extends Screen {
     private ButtonWidget autoEatMinFoodButton;
     private CyclingButtonWidget<Boolean> autoEatDisconnectButton;
     
+    // Dashboard tab
+    private boolean showDashboard = false;
+    private final DashboardPanel dashboard = new DashboardPanel();
+    
     public ConfigScreen(Screen parent) {
         super(Text.literal("AutoAFK Sleep Configuration"));
         this.parent = parent;
@@ -35,6 +39,11 @@ public class ConfigScreen extends Screen {
     
     @Override
     protected void init() {
+        if (showDashboard) {
+            initDashboard();
+            return;
+        }
+        
         int y = 20;
         int spacing = 25;
         
@@ -179,7 +188,14 @@ public class ConfigScreen extends Screen {
             button -> {
                 this.client.setScreen(new InstructionsScreen(this));
             })
-            .dimensions(this.width / 2 - 100, y, 95, 20)
+            .dimensions(this.width / 2 - 100, y, 64, 20)
+            .build());
+        
+        // Dashboard Tab Button
+        this.addDrawableChild(ButtonWidget.builder(
+            Text.literal("Dashboard"),
+            button -> switchTab(true))
+            .dimensions(this.width / 2 - 32, y, 64, 20)
             .build());
         
         // Done Button
@@ -189,12 +205,38 @@ public class ConfigScreen extends Screen {
                 AutoAFKSleep.getInstance().saveConfig();
                 this.close();
             })
-            .dimensions(this.width / 2 + 5, y, 95, 20)
+            .dimensions(this.width / 2 + 36, y, 64, 20)
             .build());
         
         updateWidgetVisibility();
     }
     
+    private void initDashboard() {
+        dashboard.layout(this.textRenderer, 20, 25, this.width - 40);
+        
+        // Settings Tab Button
+        this.addDrawableChild(ButtonWidget.builder(
+            Text.literal("Settings"),
+            button -> switchTab(false))
+            .dimensions(this.width / 2 - 100, this.height - 30, 95, 20)
+            .build());
+        
+        // Done Button
+        this.addDrawableChild(ButtonWidget.builder(
+            ScreenTexts.DONE,
+            button -> {
+                AutoAFKSleep.getInstance().saveConfig();
+                this.close();
+            })
+            .dimensions(this.width / 2 + 5, this.height - 30, 95, 20)
+            .build());
+    }
+    
+    private void switchTab(boolean dashboardTab) {
+        this.showDashboard = dashboardTab;
+        this.clearAndInit();
+    }
+    
     private void updateWidgetVisibility() {
         // Only show custom command field when CUSTOM_COMMAND is selected
         this.customCommandField.visible = config.sleepFailureAction == ModConfig.SleepFailureAction.CUSTOM_COMMAND;
@@ -224,6 +266,12 @@ public class ConfigScreen extends Screen {
         context.drawCenteredTextWithShadow(this.textRenderer, this.title, 
             this.width / 2, 5, 0xFFFFFF);
         
+        if (showDashboard) {
+            // Cached text and bars, rebuilt once per second
+            dashboard.render(context);
+            return;
+        }
+        
         // Draw labels for text fields
         if (customCommandField.visible) {
             context.drawTextWithShadow(this.textRenderer, 
@@ -246,6 +294,9 @@ public class ConfigScreen extends Screen {
     
     @Override
     public boolean mouseClicked(double mouseX, double mouseY, int button) {
+        if (showDashboard) {
+            return super.mouseClicked(mouseX, mouseY, button);
+        }
         // Set focus to clicked text field
         if (this.customCommandField.visible && this.customCommandField.mouseClicked(mouseX, mouseY, button)) {
             this.setFocused(this.customCommandField);
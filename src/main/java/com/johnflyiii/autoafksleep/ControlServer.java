@@ -0,0 +1,360 @@
+package com.johnflyiii.autoafksleep;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.loader.api.FabricLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local control endpoint (localhost TCP) for managing many clients from one script.
+ *
+ * Line-delimited JSON: each request is {"token": ..., "id": ..., "op": ...},
+ * each reply echoes the id. The token is a random per-install secret kept in
+ * the config directory, so other local programs and web pages (which can reach
+ * localhost but not read the file) can't drive the client. A connection is
+ * closed on its first malformed or unauthenticated line, on an overlong line
+ * and after a minute without a request. Reads ("status", "perf") are answered on the connection's
+ * thread from the last snapshot the client thread published. Everything else
+ * is queued and applied by the client thread on its next tick; the reply is
+ * sent once it was applied. {"op": "subscribe"} turns the connection into an
+ * event feed.
+ */
+public class ControlServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-control");
+    private static final Gson GSON = new Gson();
+    private static final long APPLY_TIMEOUT_MS = 5000;
+    private static final int EVENT_QUEUE_CAPACITY = 256; // Slow subscribers lose events rather than stall the game
+    private static final int MAX_CONNECTIONS = 8;
+    private static final int MAX_LINE_CHARS = 16 * 1024;
+    private static final int READ_TIMEOUT_MS = 60_000;
+    private static final Path TOKEN_FILE = FabricLoader.getInstance().getConfigDir().resolve("autoafksleep-control.token");
+
+    /**
+     * Applies a mutating request on the client thread.
+     */
+    public interface Handler {
+        JsonObject apply(String op, JsonObject request);
+    }
+
+    /**
+     * @param taken set by whichever side gets to it first: the client thread applying it, or the timeout giving up
+     */
+    private record Pending(String op, JsonObject request, CompletableFuture<JsonObject> reply, AtomicBoolean taken) {}
+
+    private final Handler handler;
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final List<BlockingQueue<String>> subscribers = new CopyOnWriteArrayList<>();
+    private final Semaphore connectionSlots = new Semaphore(MAX_CONNECTIONS);
+    private volatile JsonObject snapshot = new JsonObject(); // Replaced, never mutated once published
+    private volatile ServerSocket server;
+    private volatile byte[] token;
+    private int port = 0;
+
+    public ControlServer(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @param port localhost port to listen on, 0 stops the server
+     */
+    public void configure(int port) {
+        if (port == this.port) {
+            return;
+        }
+        stop();
+        this.port = port;
+        if (port == 0) {
+            return;
+        }
+        try {
+            token = loadToken().getBytes(StandardCharsets.UTF_8);
+            ServerSocket socket = new ServerSocket(port, 8, InetAddress.getLoopbackAddress());
+            server = socket;
+            startThread("AutoAFKSleep Control", () -> acceptLoop(socket));
+            LOGGER.info("Control socket listening on 127.0.0.1:{} (token in {})", port, TOKEN_FILE.getFileName());
+        } catch (IOException e) {
+            LOGGER.error("Failed to open control socket on port {}", port, e);
+        }
+    }
+
+    public void stop() {
+        ServerSocket socket = server;
+        server = null;
+        port = 0;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    public boolean isActive() {
+        return server != null;
+    }
+
+    /**
+     * Applies queued requests; call every client tick.
+     */
+    public void tick() {
+        Pending request;
+        while ((request = pending.poll()) != null) {
+            if (!request.taken().compareAndSet(false, true)) {
+                continue; // The caller already got a timeout - applying it now would surprise a retrying script
+            }
+            try {
+                request.reply().complete(handler.apply(request.op(), request.request()));
+            } catch (Exception e) {
+                request.reply().complete(error(e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Publishes the state read requests are answered from. The object must not be modified afterwards.
+     */
+    public void publishSnapshot(JsonObject state) {
+        snapshot = state;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * Sends an event to every subscribed connection.
+     */
+    public void publishEvent(String type, JsonObject data) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        data.addProperty("event", type);
+        data.addProperty("time", System.currentTimeMillis());
+        String line = GSON.toJson(data);
+        for (BlockingQueue<String> subscriber : subscribers) {
+            subscriber.offer(line);
+        }
+    }
+
+    public static JsonObject error(String message) {
+        JsonObject reply = new JsonObject();
+        reply.addProperty("ok", false);
+        reply.addProperty("error", message != null ? message : "failed");
+        return reply;
+    }
+
+    /**
+     * Reads the token file, creating it with a new random token on first use.
+     */
+    private static String loadToken() throws IOException {
+        if (Files.exists(TOKEN_FILE)) {
+            String existing = Files.readString(TOKEN_FILE, StandardCharsets.UTF_8).trim();
+            if (!existing.isEmpty()) {
+                return existing;
+            }
+        }
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        String created = HexFormat.of().formatHex(bytes);
+        Files.writeString(TOKEN_FILE, created + "\n", StandardCharsets.UTF_8);
+        try {
+            Files.setPosixFilePermissions(TOKEN_FILE, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system - the user profile directory is private on Windows anyway
+        }
+        LOGGER.info("Created control socket token in {}", TOKEN_FILE);
+        return created;
+    }
+
+    private boolean isAuthorized(JsonObject request) {
+        byte[] expected = token;
+        if (expected == null || !request.has("token") || !request.get("token").isJsonPrimitive()) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, request.get("token").getAsString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ========== IO threads ==========
+
+    private void acceptLoop(ServerSocket socket) {
+        while (!socket.isClosed()) {
+            try {
+                Socket connection = socket.accept();
+                if (!connectionSlots.tryAcquire()) {
+                    connection.close();
+                    continue;
+                }
+                startThread("AutoAFKSleep Control Connection", () -> {
+                    try {
+                        serve(socket, connection);
+                    } finally {
+                        connectionSlots.release();
+                    }
+                });
+            } catch (IOException e) {
+                // Closed by stop()
+            }
+        }
+    }
+
+    private void serve(ServerSocket socket, Socket connection) {
+        try (connection;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8)) {
+            connection.setSoTimeout(READ_TIMEOUT_MS);
+            String line;
+            while ((line = readLine(reader)) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonObject request;
+                String op;
+                try {
+                    request = JsonParser.parseString(line).getAsJsonObject();
+                    op = request.has("op") ? request.get("op").getAsString() : "";
+                } catch (Exception e) {
+                    // Whatever sent this isn't speaking the protocol (e.g. a browser request) - drop it
+                    reply(writer, error("bad request"), null);
+                    return;
+                }
+                if (!isAuthorized(request)) {
+                    reply(writer, error("invalid token"), request);
+                    return;
+                }
+                JsonObject reply;
+                try {
+                    reply = handle(op, request);
+                } catch (Exception e) {
+                    reply = error(e.getMessage());
+                }
+                reply(writer, reply, request);
+                if ("subscribe".equals(op) && reply.get("ok").getAsBoolean()) {
+                    streamEvents(socket, writer);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Connection closed, timed out or sent an overlong line
+        }
+    }
+
+    /**
+     * Like {@link BufferedReader#readLine()}, but gives up on lines longer than {@link #MAX_LINE_CHARS}.
+     */
+    private static String readLine(Reader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                return line.toString();
+            }
+            if (c != '\r') {
+                if (line.length() >= MAX_LINE_CHARS) {
+                    throw new IOException("request line too long");
+                }
+                line.append((char) c);
+            }
+        }
+        return line.isEmpty() ? null : line.toString();
+    }
+
+    private static void reply(Writer writer, JsonObject reply, JsonObject request) throws IOException {
+        if (request != null && request.has("id")) {
+            reply.add("id", request.get("id"));
+        }
+        writer.write(GSON.toJson(reply));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private JsonObject handle(String op, JsonObject request) throws Exception {
+        switch (op) {
+            case "status", "perf" -> {
+                JsonObject state = snapshot;
+                JsonObject reply = new JsonObject();
+                reply.addProperty("ok", true);
+                reply.add(op, state.has(op) ? state.get(op) : new JsonObject());
+                return reply;
+            }
+            case "subscribe" -> {
+                JsonObject reply = new JsonObject();
+                reply.addProperty("ok", true);
+                return reply;
+            }
+            default -> {
+                // Mutations run on the client thread at the next tick
+                CompletableFuture<JsonObject> reply = new CompletableFuture<>();
+                AtomicBoolean taken = new AtomicBoolean();
+                pending.add(new Pending(op, request, reply, taken));
+                try {
+                    return reply.get(APPLY_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (taken.compareAndSet(false, true)) {
+                        reply.cancel(false);
+                        return error("timed out waiting for the client thread, not applied");
+                    }
+                    // The client thread is applying it right now
+                    return reply.get();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param socket the server socket the connection came from; the feed ends when it closes
+     */
+    private void streamEvents(ServerSocket socket, Writer writer) throws IOException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(EVENT_QUEUE_CAPACITY);
+        subscribers.add(queue);
+        try {
+            while (!socket.isClosed()) {
+                String event = queue.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    writer.write(event);
+                    writer.write('\n');
+                    writer.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscribers.remove(queue);
+        }
+    }
+
+    private static void startThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
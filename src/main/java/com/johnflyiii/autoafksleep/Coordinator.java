@@ -0,0 +1,565 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.util.math.BlockPos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates several AFK clients on the same host and server over a local
+ * Unix domain socket.
+ *
+ * The first client to take the server's lock file becomes the leader and
+ * listens on the socket; the others connect as followers and re-elect when
+ * the leader leaves. While the leader is AFK it answers public sleep chatter alone; it also shares
+ * its learned night window, and arbitrates bed claims so every account ends
+ * up in a different bed.
+ *
+ * Socket IO runs on daemon threads. Received lines are queued and applied on
+ * the client thread in {@link #tick()}, so all other state is client-thread only.
+ * Outgoing lines are queued per connection and written by its own writer
+ * thread, so a stalled peer can never block the game tick.
+ *
+ * Protocol, one line per message:
+ * HELLO name, CLAIM x y z (follower to leader),
+ * CLAIMS name:x,y,z ..., WINDOW dimension start end timePerTick, STATE afk|active (leader to followers).
+ */
+public class Coordinator {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-coord");
+    private static final long WINDOW_BROADCAST_INTERVAL_MS = 30_000;
+    private static final long ELECTION_RETRY_MS = 1000;
+    private static final long CLAIM_TIMEOUT_MS = 3000;
+    private static final int OUTBOX_CAPACITY = 64; // A peer this far behind has stopped reading and is dropped
+
+    public enum Role { OFF, LEADER, FOLLOWER }
+
+    private record Message(SocketChannel from, String line) {}
+
+    private volatile Role role = Role.OFF;
+    private volatile boolean running = false;
+    private volatile int generation = 0; // Bumped by start() and stop() so a finishing old thread can't touch the new state
+    private String name;
+    private Path socketPath;
+    private Path lockPath;
+    private Thread thread;
+
+    // IO handles, touched by the IO threads and stop()
+    private volatile ServerSocketChannel server;
+    private volatile SocketChannel upstream;
+    private final List<SocketChannel> followers = new CopyOnWriteArrayList<>();
+    private final Map<SocketChannel, String> followerNames = new ConcurrentHashMap<>();
+    private final Map<SocketChannel, BlockingQueue<String>> outboxes = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Message> inbox = new ConcurrentLinkedQueue<>();
+
+    // Client thread state
+    private final Map<String, BlockPos> claims = new HashMap<>(); // Owner name to bed head
+    private volatile BlockPos ownClaim = null; // Re-sent by the IO thread after re-election
+    private long claimDeadline = 0; // A follower's claim still unanswered by then is given up
+    private Role lastRole = Role.OFF;
+    private boolean claimsChanged = false;
+    private boolean localAfk = false;
+    private boolean afkChanged = false;
+    private boolean leaderAfk = false;
+    private long lastWindowBroadcast = 0;
+    private String sharedDimension = null;
+    private int sharedStart;
+    private int sharedEnd;
+    private double sharedTimePerTick;
+    private boolean sharedWindowFresh = false;
+
+    /**
+     * Joins the coordination group of a server; the leader is elected in the background.
+     */
+    public void start(String serverKey, String playerName) {
+        if (running) {
+            stop();
+        }
+        String id = "autoafksleep-" + Integer.toHexString(serverKey.hashCode());
+        Path dir = Path.of(System.getProperty("java.io.tmpdir"));
+        socketPath = dir.resolve(id + ".sock");
+        lockPath = dir.resolve(id + ".lock");
+        name = playerName;
+        running = true;
+        int threadGeneration = ++generation;
+        thread = new Thread(() -> run(threadGeneration), "AutoAFKSleep Coordinator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        synchronized (this) {
+            generation++;
+            role = Role.OFF;
+        }
+        closeQuietly(server);
+        closeQuietly(upstream);
+        for (SocketChannel follower : followers) {
+            closeQuietly(follower);
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        lastRole = Role.OFF;
+        inbox.clear();
+        claims.clear();
+        ownClaim = null;
+        leaderAfk = false;
+        sharedWindowFresh = false;
+        sharedDimension = null;
+    }
+
+    public boolean isActive() {
+        return running;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isFollower() {
+        return role == Role.FOLLOWER;
+    }
+
+    /**
+     * True when public chatter can be left to the leader: this client follows
+     * and the leader reported being AFK, so its chat handling is running.
+     */
+    public boolean isLeaderAnswering() {
+        return role == Role.FOLLOWER && leaderAfk;
+    }
+
+    /**
+     * Reports this client's AFK state; the leader passes it on to its followers.
+     */
+    public void setAfk(boolean afk) {
+        if (afk != localAfk) {
+            localAfk = afk;
+            afkChanged = true;
+        }
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    /**
+     * Applies messages received since the last tick; call every client tick.
+     */
+    public void tick() {
+        Role current = role;
+        if (current != lastRole) {
+            lastRole = current;
+            leaderAfk = false; // Until the new leader says otherwise
+            afkChanged = true;
+            if (current == Role.LEADER) {
+                // Claims of the previous leader's group are rebuilt as followers reconnect
+                claims.clear();
+                if (ownClaim != null) {
+                    claims.put(name, ownClaim);
+                }
+                claimsChanged = true;
+            }
+        }
+        Message message;
+        while ((message = inbox.poll()) != null) {
+            if (role == Role.LEADER) {
+                handleFromFollower(message);
+            } else {
+                handleFromLeader(message.line());
+            }
+        }
+        if (claimsChanged && role == Role.LEADER) {
+            claimsChanged = false;
+            broadcast(formatClaims());
+        }
+        if (afkChanged) {
+            afkChanged = false;
+            if (role == Role.LEADER) {
+                broadcast("STATE " + (localAfk ? "afk" : "active"));
+            }
+        }
+    }
+
+    /**
+     * Claims a bed; call before interacting with it.
+     *
+     * The leader decides on the spot. A follower sends the claim to the leader
+     * and only gets true once the leader's claims table confirms it, so until
+     * then (see {@link #hasPendingClaim()}) the bed must not be used. A claim
+     * the leader doesn't answer in time is dropped and the bed used anyway.
+     *
+     * @return true if this client holds the bed and may use it now
+     */
+    public boolean claimBed(BlockPos bedHead) {
+        Role current = role;
+        if (!running || current == Role.OFF) {
+            return true; // No group to share beds with (yet)
+        }
+        if (isClaimedByOther(bedHead)) {
+            return false;
+        }
+        if (current == Role.LEADER) {
+            ownClaim = bedHead;
+            claim(name, bedHead);
+            return true;
+        }
+        if (bedHead.equals(claims.get(name))) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (bedHead.equals(ownClaim)) {
+            if (now < claimDeadline) {
+                return false;
+            }
+            // Lost on the way or the leader hangs - don't stop sleeping over it
+            LOGGER.info("Coordination leader didn't answer the claim for bed at {}, using it anyway", bedHead);
+            ownClaim = null;
+            return true;
+        }
+        ownClaim = bedHead;
+        claimDeadline = now + CLAIM_TIMEOUT_MS;
+        send(upstream, "CLAIM " + bedHead.getX() + " " + bedHead.getY() + " " + bedHead.getZ());
+        return false;
+    }
+
+    /**
+     * True while a follower's claim was sent, the leader hasn't answered it yet and it hasn't timed out.
+     */
+    public boolean hasPendingClaim() {
+        BlockPos claim = ownClaim;
+        return role == Role.FOLLOWER && claim != null && !claim.equals(claims.get(name)) && !isClaimedByOther(claim)
+            && System.currentTimeMillis() < claimDeadline;
+    }
+
+    public boolean isClaimedByOther(BlockPos bedHead) {
+        for (Map.Entry<String, BlockPos> entry : claims.entrySet()) {
+            if (entry.getValue().equals(bedHead) && !entry.getKey().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Leader only: shares the learned night window, when it changed or periodically.
+     */
+    public void shareNightWindow(String dimension, int start, int end, double timePerTick, long now) {
+        if (role != Role.LEADER || followers.isEmpty()) {
+            return;
+        }
+        boolean changed = !dimension.equals(sharedDimension) || start != sharedStart || end != sharedEnd ||
+            Math.abs(timePerTick - sharedTimePerTick) > sharedTimePerTick * 0.01;
+        if (!changed && now - lastWindowBroadcast < WINDOW_BROADCAST_INTERVAL_MS) {
+            return;
+        }
+        sharedDimension = dimension;
+        sharedStart = start;
+        sharedEnd = end;
+        sharedTimePerTick = timePerTick;
+        lastWindowBroadcast = now;
+        broadcast("WINDOW " + dimension + " " + start + " " + end + " " + timePerTick);
+    }
+
+    /**
+     * Follower only: hands the leader's latest night window to the local windows once.
+     */
+    public void consumeSharedWindow(String dimension, NightWindows target) {
+        if (sharedWindowFresh && dimension.equals(sharedDimension)) {
+            sharedWindowFresh = false;
+            target.adopt(sharedStart, sharedEnd, sharedTimePerTick);
+        }
+    }
+
+    private void handleFromFollower(Message message) {
+        SocketChannel from = message.from();
+        String line = message.line();
+        if (line == null) {
+            // Follower left - free its bed
+            String owner = followerNames.remove(from);
+            if (owner != null && claims.remove(owner) != null) {
+                claimsChanged = true;
+            }
+            return;
+        }
+        String[] parts = line.split(" ");
+        try {
+            switch (parts[0]) {
+                case "HELLO" -> {
+                    followerNames.put(from, parts[1]);
+                    LOGGER.info("{} joined the coordination group", parts[1]);
+                    claimsChanged = true;
+                    afkChanged = true;
+                    lastWindowBroadcast = 0;
+                    sharedDimension = null; // Resend the window on the next share
+                }
+                case "CLAIM" -> {
+                    String owner = followerNames.get(from);
+                    if (owner != null) {
+                        claim(owner, new BlockPos(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3])));
+                    }
+                }
+                default -> LOGGER.debug("Unknown coordination message: {}", line);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.debug("Malformed coordination message: {}", line);
+        }
+    }
+
+    private void handleFromLeader(String line) {
+        if (line == null) {
+            return;
+        }
+        String[] parts = line.split(" ");
+        try {
+            switch (parts[0]) {
+                case "CLAIMS" -> {
+                    claims.clear();
+                    for (int i = 1; i < parts.length; i++) {
+                        int colon = parts[i].lastIndexOf(':');
+                        String[] xyz = parts[i].substring(colon + 1).split(",");
+                        claims.put(parts[i].substring(0, colon),
+                            new BlockPos(Integer.parseInt(xyz[0]), Integer.parseInt(xyz[1]), Integer.parseInt(xyz[2])));
+                    }
+                }
+                case "STATE" -> leaderAfk = "afk".equals(parts[1]);
+                case "WINDOW" -> {
+                    sharedDimension = parts[1];
+                    sharedStart = Integer.parseInt(parts[2]);
+                    sharedEnd = Integer.parseInt(parts[3]);
+                    sharedTimePerTick = Double.parseDouble(parts[4]);
+                    sharedWindowFresh = true;
+                }
+                default -> LOGGER.debug("Unknown coordination message: {}", line);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.debug("Malformed coordination message: {}", line);
+        }
+    }
+
+    private void claim(String owner, BlockPos bedHead) {
+        for (Map.Entry<String, BlockPos> entry : claims.entrySet()) {
+            if (entry.getValue().equals(bedHead) && !entry.getKey().equals(owner)) {
+                // First claim wins; the loser sees the table and picks another bed
+                claimsChanged = true;
+                return;
+            }
+        }
+        claims.put(owner, bedHead);
+        claimsChanged = true;
+    }
+
+    private String formatClaims() {
+        StringBuilder line = new StringBuilder("CLAIMS");
+        for (Map.Entry<String, BlockPos> entry : claims.entrySet()) {
+            BlockPos pos = entry.getValue();
+            line.append(' ').append(entry.getKey()).append(':')
+                .append(pos.getX()).append(',').append(pos.getY()).append(',').append(pos.getZ());
+        }
+        return line.toString();
+    }
+
+    private void broadcast(String line) {
+        for (SocketChannel follower : followers) {
+            send(follower, line);
+        }
+    }
+
+    // ========== IO threads ==========
+
+    private boolean isCurrent(int threadGeneration) {
+        return running && generation == threadGeneration;
+    }
+
+    /**
+     * Sets the role unless the calling thread was stopped or replaced in the meantime.
+     */
+    private synchronized boolean setRole(int threadGeneration, Role newRole) {
+        if (generation != threadGeneration) {
+            return false;
+        }
+        role = newRole;
+        return true;
+    }
+
+    private void run(int threadGeneration) {
+        while (isCurrent(threadGeneration)) {
+            try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.tryLock();
+                if (lock != null) {
+                    lead(threadGeneration);
+                    lock.release();
+                } else {
+                    follow(threadGeneration);
+                }
+            } catch (IOException | OverlappingFileLockException e) {
+                // Overlapping: a previous thread of this client still holds the lock and is shutting down
+                if (isCurrent(threadGeneration)) {
+                    LOGGER.debug("Coordination socket error: {}", e.toString());
+                }
+            }
+            if (!setRole(threadGeneration, Role.OFF)) {
+                return; // Stopped or restarted - the role belongs to the new thread
+            }
+            if (running) {
+                try {
+                    // Randomized so followers of a departed leader don't all race at once
+                    Thread.sleep(ELECTION_RETRY_MS / 2 + (long) (Math.random() * ELECTION_RETRY_MS));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void lead(int threadGeneration) throws IOException {
+        // Holding the lock means any socket file left behind is stale
+        Files.deleteIfExists(socketPath);
+        try (ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.bind(UnixDomainSocketAddress.of(socketPath));
+            server = channel;
+            // Checked after publishing the channel, so either this check or stop() closing it wins
+            if (!setRole(threadGeneration, Role.LEADER)) {
+                return;
+            }
+            LOGGER.info("Coordination leader for this server ({})", socketPath);
+            while (isCurrent(threadGeneration)) {
+                SocketChannel follower = channel.accept();
+                startWriter(follower);
+                followers.add(follower);
+                Thread reader = new Thread(() -> readFollower(follower), "AutoAFKSleep Coordinator Peer");
+                reader.setDaemon(true);
+                reader.start();
+            }
+        } finally {
+            if (generation == threadGeneration) {
+                server = null;
+            }
+            for (SocketChannel follower : followers) {
+                closeQuietly(follower);
+            }
+            followers.clear();
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void readFollower(SocketChannel follower) {
+        try (BufferedReader reader = new BufferedReader(Channels.newReader(follower, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                inbox.add(new Message(follower, line));
+            }
+        } catch (IOException e) {
+            // Closed
+        }
+        followers.remove(follower);
+        inbox.add(new Message(follower, null));
+    }
+
+    private void follow(int threadGeneration) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8))) {
+            startWriter(channel);
+            upstream = channel;
+            if (!setRole(threadGeneration, Role.FOLLOWER)) {
+                return;
+            }
+            LOGGER.info("Following the coordination leader for this server");
+            send(channel, "HELLO " + name);
+            BlockPos claim = ownClaim;
+            if (claim != null) {
+                send(channel, "CLAIM " + claim.getX() + " " + claim.getY() + " " + claim.getZ());
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                inbox.add(new Message(channel, line));
+            }
+            LOGGER.info("Coordination leader left, re-electing");
+        } finally {
+            if (generation == threadGeneration) {
+                upstream = null;
+            }
+        }
+    }
+
+    private void startWriter(SocketChannel channel) {
+        BlockingQueue<String> outbox = new ArrayBlockingQueue<>(OUTBOX_CAPACITY);
+        outboxes.put(channel, outbox);
+        Thread writer = new Thread(() -> writeLoop(channel, outbox), "AutoAFKSleep Coordinator Writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeLoop(SocketChannel channel, BlockingQueue<String> outbox) {
+        try {
+            while (channel.isOpen()) {
+                String line = outbox.poll(1, TimeUnit.SECONDS);
+                if (line != null) {
+                    ByteBuffer buffer = StandardCharsets.UTF_8.encode(line + "\n");
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Closed
+        } finally {
+            outboxes.remove(channel);
+            closeQuietly(channel);
+        }
+    }
+
+    /**
+     * Queues a line for the connection's writer thread; never blocks.
+     */
+    private void send(SocketChannel channel, String line) {
+        if (channel == null) {
+            return;
+        }
+        BlockingQueue<String> outbox = outboxes.get(channel);
+        if (outbox != null && !outbox.offer(line)) {
+            LOGGER.debug("Coordination peer stopped reading, dropping the connection");
+            closeQuietly(channel);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
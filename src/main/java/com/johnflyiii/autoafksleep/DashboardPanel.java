@@ -0,0 +1,190 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.StringVisitable;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live runtime data for the dashboard tab of the config screen.
+ *
+ * Text lines and sparkline bar heights are rebuilt only when {@link PerfStats}
+ * took a new per-second sample; in between, rendering draws the cached text
+ * and rectangles, so the dashboard doesn't inflate the costs it shows.
+ */
+public class DashboardPanel {
+    private static final int LINE_HEIGHT = 11;
+    private static final int GRAPH_HEIGHT = 28;
+    private static final int GRAPH_SPACING = 8;
+    private static final int NIGHT_BOX = 6;
+    private static final int HEADER_COLOR = 0xFFFFAA00;
+    private static final int TEXT_COLOR = 0xFFE0E0E0;
+    private static final int LABEL_COLOR = 0xFFA0A0A0;
+
+    /**
+     * One sparkline over a history series.
+     */
+    private static final class Graph {
+        final String label;
+        final String format;
+        final PerfStats.Series series;
+        final int color;
+        final int[] barHeights;
+        int bars = 0;
+        OrderedText labelText = OrderedText.EMPTY;
+
+        Graph(String label, String format, PerfStats.Series series, int color) {
+            this.label = label;
+            this.format = format;
+            this.series = series;
+            this.color = color;
+            this.barHeights = new int[series.capacity()];
+        }
+
+        void rebuild() {
+            float max = Math.max(series.max(), 1e-3f);
+            bars = series.size();
+            for (int i = 0; i < bars; i++) {
+                barHeights[i] = Math.round(series.get(i) / max * GRAPH_HEIGHT);
+            }
+            labelText = Text.literal(label + ": " + String.format(format, series.latest()) +
+                " (max " + String.format(format, series.max()) + ")").asOrderedText();
+        }
+    }
+
+    private final Graph[] graphs = {
+        new Graph("Chat msg/s", "%.0f", PerfStats.chatRateHistory, 0xFF55AAFF),
+        new Graph("Mod time per tick (µs)", "%.1f", PerfStats.tickCostHistory, 0xFFFFAA00),
+        new Graph("Hunger", "%.0f", PerfStats.hungerHistory, 0xFFAA7744),
+        new Graph("Food forecast (h)", "%.1f", PerfStats.foodHoursHistory, 0xFF55FF55)
+    };
+
+    private TextRenderer textRenderer;
+    private int x;
+    private int y;
+    private int columnWidth;
+    private int graphX;
+    private int graphWidth;
+    private long builtVersion = -1;
+
+    // Cached left column
+    private OrderedText[] lines = new OrderedText[0];
+    private int[] lineY = new int[0];
+    private int[] lineColor = new int[0];
+    private int nightsY = 0;
+    private int nightCount = 0;
+    private final boolean[] nightSlept = new boolean[16];
+
+    public void layout(TextRenderer textRenderer, int x, int y, int width) {
+        this.textRenderer = textRenderer;
+        this.x = x;
+        this.y = y;
+        this.columnWidth = width / 2 - 10;
+        this.graphX = x + width / 2 + 10;
+        this.graphWidth = width / 2 - 10;
+        builtVersion = -1;
+    }
+
+    public void render(DrawContext context) {
+        if (builtVersion != PerfStats.getSampleVersion()) {
+            rebuild();
+        }
+
+        for (int i = 0; i < lines.length; i++) {
+            context.drawTextWithShadow(textRenderer, lines[i], x, lineY[i], lineColor[i]);
+        }
+        for (int i = 0; i < nightCount; i++) {
+            int boxX = x + i * (NIGHT_BOX + 2);
+            context.fill(boxX, nightsY, boxX + NIGHT_BOX, nightsY + NIGHT_BOX, nightSlept[i] ? 0xFF55FF55 : 0xFFFF5555);
+        }
+
+        int graphY = y;
+        for (Graph graph : graphs) {
+            context.drawTextWithShadow(textRenderer, graph.labelText, graphX, graphY, LABEL_COLOR);
+            int top = graphY + LINE_HEIGHT;
+            int bottom = top + GRAPH_HEIGHT;
+            context.fill(graphX, top, graphX + graphWidth, bottom, 0x60000000);
+            // Newest sample on the right, one bar per second
+            int barWidth = Math.max(1, graphWidth / graph.barHeights.length);
+            int startX = graphX + graphWidth - graph.bars * barWidth;
+            for (int i = 0; i < graph.bars; i++) {
+                int barX = startX + i * barWidth;
+                if (barX >= graphX && graph.barHeights[i] > 0) {
+                    context.fill(barX, bottom - graph.barHeights[i], barX + barWidth, bottom, graph.color);
+                }
+            }
+            graphY = bottom + GRAPH_SPACING;
+        }
+    }
+
+    private void rebuild() {
+        builtVersion = PerfStats.getSampleVersion();
+        List<OrderedText> texts = new ArrayList<>();
+        List<Integer> colors = new ArrayList<>();
+
+        addLine(texts, colors, "Tick cost p50 / p95 / p99 (µs)", HEADER_COLOR);
+        for (PerfStats.Subsystem subsystem : PerfStats.Subsystem.values()) {
+            addLine(texts, colors, String.format("%s: %.1f / %.1f / %.1f", subsystem.getLabel(),
+                PerfStats.getCostPercentile(subsystem, 0) / 1000.0,
+                PerfStats.getCostPercentile(subsystem, 1) / 1000.0,
+                PerfStats.getCostPercentile(subsystem, 2) / 1000.0), TEXT_COLOR);
+        }
+
+        addLine(texts, colors, "Chat", HEADER_COLOR);
+        addLine(texts, colors, String.format("%.0f msg/s, prefilter hit rate %.1f%%",
+            PerfStats.chatRateHistory.latest(), PerfStats.getPrefilterHitRate()), TEXT_COLOR);
+        StringBuilder outcomes = new StringBuilder();
+        for (int i = 0; i < PerfStats.getChatCategoryCount(); i++) {
+            long count = PerfStats.getChatCategoryTotal(i);
+            if (count > 0) {
+                outcomes.append(outcomes.isEmpty() ? "" : ", ").append(PerfStats.getChatCategory(i)).append(' ').append(count);
+            }
+        }
+        addLine(texts, colors, outcomes.isEmpty() ? "No messages classified yet" : outcomes.toString(), TEXT_COLOR);
+
+        addLine(texts, colors, "Sleep and food", HEADER_COLOR);
+        nightCount = PerfStats.getNightCount();
+        int slept = 0;
+        for (int i = 0; i < nightCount; i++) {
+            nightSlept[i] = PerfStats.didSleepOnNight(i);
+            if (nightSlept[i]) {
+                slept++;
+            }
+        }
+        addLine(texts, colors, nightCount == 0 ? "No nights on record yet" :
+            String.format("Slept %d of %d nights (%.0f%%)", slept, nightCount, slept * 100.0 / nightCount), TEXT_COLOR);
+        int nightsBeforeLine = texts.size(); // Night boxes sit between the sleep and AutoEat lines
+        float foodHours = PerfStats.foodHoursHistory.latest();
+        addLine(texts, colors, "AutoEat: " + PerfStats.getAutoEatCycles() + " meals, food forecast " +
+            (foodHours > 0 ? String.format("%.1f h", foodHours) : "still learning"), TEXT_COLOR);
+
+        lines = texts.toArray(new OrderedText[0]);
+        lineY = new int[lines.length];
+        lineColor = new int[lines.length];
+        int lineTop = y;
+        for (int i = 0; i < lines.length; i++) {
+            if (i == nightsBeforeLine) {
+                nightsY = lineTop;
+                lineTop += nightCount > 0 ? NIGHT_BOX + 4 : 0;
+            }
+            lineY[i] = lineTop;
+            lineColor[i] = colors.get(i);
+            lineTop += LINE_HEIGHT;
+        }
+
+        for (Graph graph : graphs) {
+            graph.rebuild();
+        }
+    }
+
+    private void addLine(List<OrderedText> texts, List<Integer> colors, String line, int color) {
+        for (OrderedText wrapped : textRenderer.wrapLines(StringVisitable.plain(line), columnWidth)) {
+            texts.add(wrapped);
+            colors.add(color);
+        }
+    }
+}
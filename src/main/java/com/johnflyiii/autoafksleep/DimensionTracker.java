@@ -0,0 +1,59 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Tracks the dimension the player is in, updated only when the client world
+ * changes. Dimensions are compared by registry key identity (keys are
+ * interned), and whether beds work comes from the dimension type, so modded
+ * dimensions with working beds are supported.
+ */
+public class DimensionTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-dimension");
+
+    // Dimension types can differ between servers, so this is cleared on disconnect
+    private final Map<RegistryKey<World>, Boolean> bedsWorkByDimension = new IdentityHashMap<>();
+    private RegistryKey<World> dimension = null;
+    private boolean bedsWork = false;
+
+    /**
+     * @return true if the player is now in a different dimension
+     */
+    public boolean onWorldChange(ClientWorld world) {
+        if (world == null) {
+            return false;
+        }
+        RegistryKey<World> key = world.getRegistryKey();
+        if (key == dimension) {
+            return false;
+        }
+        dimension = key;
+        bedsWork = bedsWorkByDimension.computeIfAbsent(key, k -> world.getDimension().bedWorks());
+        LOGGER.debug("Entered dimension {}, beds {}", key.getValue(), bedsWork ? "work" : "explode");
+        return true;
+    }
+
+    /**
+     * @return true if the current dimension allows sleeping in beds
+     */
+    public boolean canSleep() {
+        return dimension != null && bedsWork;
+    }
+
+    public RegistryKey<World> getDimension() {
+        return dimension;
+    }
+
+    public void reset() {
+        dimension = null;
+        bedsWork = false;
+        bedsWorkByDimension.clear();
+    }
+}
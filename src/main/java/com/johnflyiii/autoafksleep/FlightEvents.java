@@ -0,0 +1,81 @@
+package com.johnflyiii.autoafksleep;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event types emitted by AutoAFKSleep and AutoEat.
+ * Events are only populated and committed when a recording has them enabled,
+ * so the cost outside of a recording is a single shouldCommit() check.
+ */
+public final class FlightEvents {
+    private static final String CATEGORY = "AutoAFK Sleep";
+
+    private FlightEvents() {}
+
+    @Name("autoafksleep.SleepAttempt")
+    @Label("Sleep Attempt")
+    @Category(CATEGORY)
+    @Description("Bed interaction from the attempt until it is verified")
+    @StackTrace(false)
+    public static final class SleepAttempt extends Event {
+        @Label("Bed X")
+        public int bedX;
+
+        @Label("Bed Y")
+        public int bedY;
+
+        @Label("Bed Z")
+        public int bedZ;
+
+        @Label("Distance")
+        @Description("Distance from the player's eyes to the bed center in blocks")
+        public double distance;
+
+        @Label("Attempt")
+        @Description("Attempt number within the current night")
+        public int attempt;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name("autoafksleep.AutoEatCycle")
+    @Label("AutoEat Cycle")
+    @Category(CATEGORY)
+    @Description("One AutoEat cycle from food selection until eating finished")
+    @StackTrace(false)
+    public static final class AutoEatCycle extends Event {
+        @Label("Slot")
+        public int slot;
+
+        @Label("Food")
+        public String food;
+
+        @Label("Hunger Before")
+        public int hungerBefore;
+
+        @Label("Hunger After")
+        public int hungerAfter;
+
+        @Label("Eating Ticks")
+        public int eatingTicks;
+    }
+
+    @Name("autoafksleep.ChatClassification")
+    @Label("Chat Classification")
+    @Category(CATEGORY)
+    @Description("Classification of one incoming chat message; the event duration is the handling latency")
+    @StackTrace(false)
+    public static final class ChatClassification extends Event {
+        @Label("Category")
+        public String category;
+
+        @Label("Message Length")
+        public int messageLength;
+    }
+}
@@ -0,0 +1,109 @@
+package com.johnflyiii.autoafksleep;
+
+import net.fabricmc.fabric.api.client.rendering.v1.hud.HudElement;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.RenderTickCounter;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.Identifier;
+
+/**
+ * One HUD line with the AFK state at a glance.
+ *
+ * The line is built from the values passed to {@link #update} only when one
+ * of them changed; each frame just draws the cached OrderedText, so the
+ * overlay allocates nothing per frame.
+ */
+public class HudStatusOverlay implements HudElement {
+    public static final Identifier ID = Identifier.of("autoafksleep", "status");
+    public static final int NIGHT = -1; // secondsUntilNight while the night window is open
+    public static final int NO_NIGHT = -2; // Beds don't work in this dimension
+    private static final int COLOR = 0xFFFFFFFF;
+
+    private boolean visible = false;
+    private OrderedText line = OrderedText.EMPTY;
+
+    // State the cached line was built from
+    private boolean enabled;
+    private boolean afk;
+    private boolean sleeping;
+    private int secondsUntilNight;
+    private int hunger;
+    private int foodTenthsOfHours;
+    private int failures;
+    private boolean built = false;
+
+    /**
+     * @param foodTenthsOfHours food forecast in tenths of an hour, negative while unknown
+     */
+    public void update(boolean enabled, boolean afk, boolean sleeping, int secondsUntilNight,
+                       int hunger, int foodTenthsOfHours, int failures) {
+        visible = true;
+        if (built && enabled == this.enabled && afk == this.afk && sleeping == this.sleeping &&
+                secondsUntilNight == this.secondsUntilNight && hunger == this.hunger &&
+                foodTenthsOfHours == this.foodTenthsOfHours && failures == this.failures) {
+            return;
+        }
+        this.enabled = enabled;
+        this.afk = afk;
+        this.sleeping = sleeping;
+        this.secondsUntilNight = secondsUntilNight;
+        this.hunger = hunger;
+        this.foodTenthsOfHours = foodTenthsOfHours;
+        this.failures = failures;
+        built = true;
+        line = build().asOrderedText();
+    }
+
+    public void hide() {
+        visible = false;
+    }
+
+    @Override
+    public void render(DrawContext context, RenderTickCounter tickCounter) {
+        if (!visible) {
+            return;
+        }
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.getDebugHud().shouldShowDebugHud()) {
+            return;
+        }
+        context.drawTextWithShadow(client.textRenderer, line, 4, 4, COLOR);
+    }
+
+    private MutableText build() {
+        MutableText text = Text.literal("AutoAFK ").formatted(Formatting.GRAY);
+        if (!enabled) {
+            return text.append(Text.literal("Off").formatted(Formatting.RED));
+        }
+        text.append(afk ? Text.literal("AFK").formatted(Formatting.GREEN) : Text.literal("Active").formatted(Formatting.YELLOW));
+
+        text.append(Text.literal(" | ").formatted(Formatting.DARK_GRAY));
+        if (sleeping) {
+            text.append(Text.literal("Sleeping").formatted(Formatting.AQUA));
+        } else if (secondsUntilNight == NIGHT) {
+            text.append(Text.literal("Night").formatted(Formatting.BLUE));
+        } else if (secondsUntilNight == NO_NIGHT) {
+            text.append(Text.literal("No beds here").formatted(Formatting.GRAY));
+        } else {
+            text.append(Text.literal(String.format("Night in %d:%02d", secondsUntilNight / 60, secondsUntilNight % 60))
+                .formatted(Formatting.WHITE));
+        }
+
+        text.append(Text.literal(" | ").formatted(Formatting.DARK_GRAY));
+        text.append(Text.literal("Hunger " + hunger + "/20").formatted(hunger <= 6 ? Formatting.RED : Formatting.WHITE));
+        if (foodTenthsOfHours >= 0) {
+            text.append(Text.literal(String.format(" (%d.%dh food)", foodTenthsOfHours / 10, foodTenthsOfHours % 10))
+                .formatted(Formatting.GRAY));
+        }
+
+        if (failures > 0) {
+            text.append(Text.literal(" | ").formatted(Formatting.DARK_GRAY));
+            text.append(Text.literal("Failures " + failures).formatted(Formatting.RED));
+        }
+        return text;
+    }
+}
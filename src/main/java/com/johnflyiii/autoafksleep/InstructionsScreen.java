@@ -4,14 +4,27 @@ import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.screen.ScreenTexts;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.StringVisitable;
 import net.minecraft.text.Text;
-import net.minecraft.client.MinecraftClient;
 import java.util.ArrayList;
 import java.util.List;
 
 public class InstructionsScreen extends Screen {
     private final Screen parent;
     private final List<String> instructions = new ArrayList<>();
+    private static final int TEXT_X = 40;
+    private static final int BULLET_INDENT = 10;
+    private static final int LINE_HEIGHT = 12; // Slightly more spacing
+    private static final int VIEWPORT_TOP = 35;
+    
+    // Laid out in init(), drawn as-is every frame
+    private OrderedText[] lineTexts = new OrderedText[0];
+    private int[] lineX = new int[0];
+    private int[] lineY = new int[0];
+    private int[] lineColor = new int[0];
+    private int contentHeight = 0;
+    private int scrollOffset = 0;
     
     protected InstructionsScreen(Screen parent) {
         super(Text.literal("AutoAFK Sleep Instructions"));
@@ -23,16 +36,19 @@ public class InstructionsScreen extends Screen {
         instructions.add("Basic Features:");
         instructions.add("• Automatically sleeps when night falls (if near a bed)");
         instructions.add("• Must be within 2 blocks of a bed to sleep");
-        instructions.add("• Works in Overworld only (beds explode in Nether/End!)");
+        instructions.add("• Works in every dimension where beds work (skips the Nether/End, where beds explode)");
         instructions.add("");
         instructions.add("Auto-Respond Messages:");
         instructions.add("• Responds to direct messages and @mentions");
         instructions.add("• Sends your custom response message");
-        instructions.add("• Has a 30-second cooldown to prevent spam");
+        instructions.add("• Only while you're AFK (no input for the configured idle time)");
+        instructions.add("• One reply per sender per cooldown (30 seconds by default)");
+        instructions.add("• At most 3 replies to everyone per minute by default");
         instructions.add("");
         instructions.add("Disconnect Phrase:");
         instructions.add("• When enabled, disconnects you if ANYONE says your phrase");
         instructions.add("• Works in ANY chat message (public, private, even your own!)");
+        instructions.add("• Also works while you're not AFK");
         instructions.add("• Choose a unique phrase to avoid accidental disconnects");
         instructions.add("• Default phrase: \"afk-logout\"");
         instructions.add("• Example: If phrase is \"afk-signout\", you'll disconnect");
@@ -55,6 +71,9 @@ public class InstructionsScreen extends Screen {
     
     @Override
     protected void init() {
+        layoutLines();
+        scrollOffset = Math.max(0, Math.min(scrollOffset, getMaxScroll()));
+        
         // Back button
         this.addDrawableChild(ButtonWidget.builder(
             ScreenTexts.BACK,
@@ -63,6 +82,67 @@ public class InstructionsScreen extends Screen {
             .build());
     }
     
+    /**
+     * Classifies, wraps and converts the instructions once per layout - render only draws.
+     */
+    private void layoutLines() {
+        int wrapWidth = Math.max(100, this.width - 2 * TEXT_X - BULLET_INDENT);
+        List<OrderedText> texts = new ArrayList<>();
+        List<int[]> placement = new ArrayList<>(); // x, y, color per wrapped line
+        int y = 0;
+        
+        for (String line : instructions) {
+            if (line.isEmpty()) {
+                // Empty line - just add space
+                y += LINE_HEIGHT / 2;
+                continue;
+            }
+            if (line.equals("AutoAFK Sleep Instructions")) {
+                // Skip - already drawn as title
+                continue;
+            }
+            boolean header = line.endsWith(":") && !line.startsWith("•");
+            int x = header || line.startsWith("•") ? TEXT_X : TEXT_X + BULLET_INDENT;
+            int color = header ? 0xFFFFAA00 : 0xFFE0E0E0; // Orange headers, light gray text
+            boolean first = true;
+            for (OrderedText wrapped : this.textRenderer.wrapLines(StringVisitable.plain(line), wrapWidth)) {
+                texts.add(wrapped);
+                // Wrapped continuations line up after the bullet
+                placement.add(new int[] { first ? x : TEXT_X + BULLET_INDENT, y, color });
+                y += LINE_HEIGHT;
+                first = false;
+            }
+        }
+        
+        lineTexts = texts.toArray(new OrderedText[0]);
+        lineX = new int[lineTexts.length];
+        lineY = new int[lineTexts.length];
+        lineColor = new int[lineTexts.length];
+        for (int i = 0; i < lineTexts.length; i++) {
+            lineX[i] = placement.get(i)[0];
+            lineY[i] = placement.get(i)[1];
+            lineColor[i] = placement.get(i)[2];
+        }
+        contentHeight = y;
+    }
+    
+    private int getViewportBottom() {
+        return this.height - 40;
+    }
+    
+    private int getMaxScroll() {
+        return Math.max(0, contentHeight - (getViewportBottom() - VIEWPORT_TOP));
+    }
+    
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double horizontalAmount, double verticalAmount) {
+        int maxScroll = getMaxScroll();
+        if (maxScroll == 0) {
+            return super.mouseScrolled(mouseX, mouseY, horizontalAmount, verticalAmount);
+        }
+        scrollOffset = (int) Math.max(0, Math.min(maxScroll, scrollOffset - verticalAmount * LINE_HEIGHT * 3));
+        return true;
+    }
     
     @Override
     public void render(DrawContext context, int mouseX, int mouseY, float delta) {
@@ -70,48 +150,30 @@ public class InstructionsScreen extends Screen {
         super.render(context, mouseX, mouseY, delta);
         
         // Title
-        context.drawCenteredTextWithShadow(
-            this.textRenderer,
-            Text.literal("AutoAFK Sleep Instructions"),
-            this.width / 2,
-            10,
-            0xFFFFFFFF
-        );
+        context.drawCenteredTextWithShadow(this.textRenderer, this.title, this.width / 2, 10, 0xFFFFFFFF);
         
-        // Draw instructions
-        int y = 35;
-        int lineHeight = 12; // Slightly more spacing
-        int x = 40;
-        
-        for (String line : instructions) {
-            if (line.isEmpty()) {
-                // Empty line - just add space
-                y += lineHeight / 2;
-            } else if (line.equals("AutoAFK Sleep Instructions")) {
-                // Skip - already drawn as title
+        // Draw only the lines inside the viewport
+        int bottom = getViewportBottom();
+        context.enableScissor(0, VIEWPORT_TOP, this.width, bottom);
+        for (int i = 0; i < lineTexts.length; i++) {
+            int y = VIEWPORT_TOP + lineY[i] - scrollOffset;
+            if (y + LINE_HEIGHT <= VIEWPORT_TOP) {
                 continue;
-            } else if (line.endsWith(":") && !line.startsWith("•")) {
-                // Section headers
-                context.drawTextWithShadow(
-                    this.textRenderer, 
-                    Text.literal(line), 
-                    x, 
-                    y, 
-                    0xFFFFAA00  // Orange with full alpha
-                );
-                y += lineHeight;
-            } else {
-                // Regular text
-                int indent = line.startsWith("•") ? 0 : 10;
-                context.drawTextWithShadow(
-                    this.textRenderer, 
-                    Text.literal(line), 
-                    x + indent, 
-                    y, 
-                    0xFFE0E0E0  // Light gray with full alpha
-                );
-                y += lineHeight;
             }
+            if (y >= bottom) {
+                break; // Lines are laid out top to bottom
+            }
+            context.drawTextWithShadow(this.textRenderer, lineTexts[i], lineX[i], y, lineColor[i]);
+        }
+        context.disableScissor();
+        
+        // Scrollbar when the text doesn't fit
+        int maxScroll = getMaxScroll();
+        if (maxScroll > 0) {
+            int viewport = bottom - VIEWPORT_TOP;
+            int barHeight = Math.max(10, viewport * viewport / contentHeight);
+            int barY = VIEWPORT_TOP + (viewport - barHeight) * scrollOffset / maxScroll;
+            context.fill(this.width - 8, barY, this.width - 4, barY + barHeight, 0xFF808080);
         }
     }
     
@@ -0,0 +1,170 @@
+package com.johnflyiii.autoafksleep;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive multi-keyword matcher (Aho-Corasick automaton).
+ *
+ * Every keyword is tagged with a bit (0-63); scanning a message walks it once,
+ * character by character, and returns the OR of the bits of all keywords found.
+ * Matching is linear in the message length regardless of the keywords, so no
+ * chat line can cause backtracking, and scanning does not allocate.
+ */
+public final class KeywordAutomaton {
+    public static final int MAX_BITS = 64;
+
+    // Per state: sorted transition characters and their target states
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // Bits of every keyword ending in this state, including those reached via fail links
+    private final long[] output;
+
+    private KeywordAutomaton(char[][] edgeChars, int[][] edgeTargets, int[] fail, long[] output) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.output = output;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the OR of the bits of every keyword contained in the text
+     */
+    public long scan(CharSequence text) {
+        long matches = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            matches |= output[state];
+        }
+        return matches;
+    }
+
+    /**
+     * Advances the automaton by one character, for callers that stream text in pieces.
+     * Start from state 0.
+     */
+    public int step(int state, char c) {
+        c = Character.toLowerCase(c);
+        while (true) {
+            int next = transition(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    public long output(int state) {
+        return output[state];
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(edgeChars[state], c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    public static final class Builder {
+        private final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        private final List<Long> terminal = new ArrayList<>();
+
+        private Builder() {
+            addState();
+        }
+
+        /**
+         * Adds a keyword tagged with the given bit. Blank keywords are ignored.
+         */
+        public Builder add(String keyword, int bit) {
+            if (bit < 0 || bit >= MAX_BITS) {
+                throw new IllegalArgumentException("Keyword bit out of range: " + bit);
+            }
+            if (keyword == null || keyword.isEmpty()) {
+                return this;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = addState();
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminal.set(state, terminal.get(state) | (1L << bit));
+            return this;
+        }
+
+        public Builder addAll(Iterable<String> keywords, int bit) {
+            for (String keyword : keywords) {
+                add(keyword, bit);
+            }
+            return this;
+        }
+
+        public KeywordAutomaton build() {
+            int states = trie.size();
+            char[][] edgeChars = new char[states][];
+            int[][] edgeTargets = new int[states][];
+            int[] fail = new int[states];
+            long[] output = new long[states];
+
+            for (int s = 0; s < states; s++) {
+                TreeMap<Character, Integer> edges = trie.get(s);
+                edgeChars[s] = new char[edges.size()];
+                edgeTargets[s] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    edgeChars[s][i] = edge.getKey();
+                    edgeTargets[s][i] = edge.getValue();
+                    i++;
+                }
+                output[s] = terminal.get(s);
+            }
+
+            KeywordAutomaton automaton = new KeywordAutomaton(edgeChars, edgeTargets, fail, output);
+
+            // Breadth-first so every fail target is finished before it is used
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int target : edgeTargets[0]) {
+                fail[target] = 0;
+                queue.add(target);
+            }
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                for (int i = 0; i < edgeChars[s].length; i++) {
+                    char c = edgeChars[s][i];
+                    int target = edgeTargets[s][i];
+                    int f = fail[s];
+                    while (f != 0 && automaton.transition(f, c) < 0) {
+                        f = fail[f];
+                    }
+                    int fallback = automaton.transition(f, c);
+                    fail[target] = fallback >= 0 && fallback != target ? fallback : 0;
+                    output[target] |= output[fail[target]];
+                    queue.add(target);
+                }
+            }
+            return automaton;
+        }
+
+        private int addState() {
+            trie.add(new TreeMap<>());
+            terminal.add(0L);
+            return trie.size() - 1;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.johnflyiii.autoafksleep;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.text.Text;
 import org.slf4j.Logger;
@@ -11,6 +13,13 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration handler for AutoAFKSleep mod
@@ -29,18 +38,44 @@ public class ModConfig {
     public SleepFailureAction sleepFailureAction = SleepFailureAction.NO_ACTION;
     public String customCommand = "/move lobby";
     public boolean autoRespond = true;
-    public String responseMessage = "I'm AFK with auto-sleep enabled. I'll sleep automatically when night comes!";
+    public String responseMessage = "I'm AFK with auto-sleep enabled. I'll sleep automatically when night comes!"; // Supports {placeholders}
     public boolean disconnectPhraseEnabled = true;
     public String disconnectPhrase = "afk-logout";
+    public List<ChatRule> chatRules = new ArrayList<>(); // User-defined chat triggers, first match wins
+    public List<ChatFormatProfile> chatFormatProfiles = defaultChatFormatProfiles(); // First profile matching the server wins
+    public String chatLanguage = ""; // Language of chat keywords, e.g. "de_de" (empty = game language)
     
     // Advanced timing configuration (in seconds)
     public int wakeUpMarginSeconds = 30; // Wake up this many seconds before night
     public int checkIntervalNightSeconds = 30; // Check interval during night
     public int checkIntervalFailureSeconds = 60; // Check interval after failures
     public int maxConsecutiveFailures = 3; // Stop trying after this many failures
-    public int chatResponseCooldownSeconds = 30; // Cooldown between auto-responses
+    public int chatResponseCooldownSeconds = 30; // Cooldown between auto-responses to the same sender
+    public int globalResponseLimit = 3; // Max auto-responses to everyone combined per window
+    public int globalResponseWindowSeconds = 60; // Window for the global response limit
+    public int chatDedupWindowSeconds = 10; // Identical messages within this window are handled once (0 = off)
+    public int chatFloodThreshold = 30; // Messages per second that switch to flood mode (whispers and disconnect phrase only)
     public int sleepAttemptCooldownSeconds = 3; // Cooldown between sleep attempts
     
+    // Automatic reconnect after the server drops an AFK session
+    public boolean reconnectEnabled = false;
+    public int reconnectMaxAttempts = 10; // Give up after this many failed attempts
+    public int reconnectMaxDelaySeconds = 300; // Backoff cap (starts at 5 seconds, doubles per attempt)
+    public List<String> reconnectFinalReasons = new ArrayList<>(List.of("kick", "ban", "afk", "idle", "whitelist")); // Disconnect messages containing any of these (any case) are never reconnected
+    
+    // Coordinate with other AFK clients on this machine (local socket, one leader per server)
+    public boolean coordinationEnabled = false;
+    public int controlPort = 0; // Localhost port of the JSON control socket (0 = off)
+    public boolean hudOverlayEnabled = false; // Status line in the top-left corner of the HUD
+    
+    // Outbound chat rate limiting (token bucket)
+    public int chatRateLimitBurst = 3; // Messages that may be sent back to back
+    public int chatRateLimitPerMinute = 12; // Sustained outbound messages per minute
+    
+    // Per-server overrides of any setting above, keyed by server address ('*' wildcard), first match wins
+    public Map<String, JsonObject> serverProfiles = new LinkedHashMap<>();
+    private transient Map<String, ModConfig> resolvedProfiles = new HashMap<>();
+    
     // AutoEat configuration
     public boolean autoEatEnabled = true;
     public int autoEatHungerThreshold = 14; // Start eating when hunger <= this (max 20)
@@ -48,6 +83,21 @@ public class ModConfig {
     public int autoEatMinFoodValue = 2; // Minimum hunger value of food to eat
     public boolean autoEatDisconnectOnNoFood = true; // Disconnect when out of safe food
     
+    // AFK detection configuration
+    public boolean afkDetectionEnabled = true; // Only automate after the player stops giving input
+    public int afkIdleSeconds = 120; // Input idle time before the player counts as AFK
+    
+    // AFK render mode configuration
+    public boolean afkRenderModeEnabled = true; // Throttle frames and skip world rendering while AFK
+    public int afkRenderMaxFps = 5; // Frame cap while in low-power rendering
+    
+    // AFK resource profile configuration
+    public boolean afkProfileEnabled = true; // Lower view/simulation distance while idle
+    public int afkViewDistance = 4; // View distance (chunks) while the profile is applied
+    public int afkSimulationDistance = 5; // Simulation distance (chunks) while the profile is applied
+    public boolean afkSkipFarEntities = true; // Stop ticking entities far from the bed while idle
+    public int afkEntityRadius = 16; // Radius (blocks) around the bed in which entities keep ticking
+    
     public enum SleepFailureAction {
         DISCONNECT("Disconnect"),
         CUSTOM_COMMAND("Custom Command"),
@@ -68,6 +118,65 @@ public class ModConfig {
         }
     }
     
+    public enum RuleScope {
+        DM,
+        PUBLIC,
+        SYSTEM,
+        ANY
+    }
+    
+    public enum RuleAction {
+        RESPOND,
+        DISCONNECT,
+        RUN_COMMAND,
+        SLEEP_NOW
+    }
+    
+    public static class ChatRule {
+        public String pattern = ""; // Case-insensitive text to look for (plain text, not a regex)
+        public RuleScope scope = RuleScope.ANY;
+        public RuleAction action = RuleAction.RESPOND;
+        public String command = ""; // Command for RUN_COMMAND
+    }
+    
+    /**
+     * Describes how a server formats non-vanilla chat (plugins, proxies).
+     * Vanilla whispers and system messages are recognized structurally and
+     * don't need markers.
+     */
+    public static class ChatFormatProfile {
+        public String name = "default";
+        public List<String> servers = new ArrayList<>(); // Address patterns, '*' matches anything
+        public List<String> directMessageMarkers = new ArrayList<>(); // Text that marks a plugin whisper to us
+        public List<String> systemMarkers = new ArrayList<>(); // Text that marks a plugin system message
+    }
+    
+    private static List<ChatFormatProfile> defaultChatFormatProfiles() {
+        // Catch-all covering the common Essentials/proxy whisper formats
+        ChatFormatProfile profile = new ChatFormatProfile();
+        profile.servers.add("*");
+        profile.directMessageMarkers.add(" whispers to you:");
+        profile.directMessageMarkers.add(" whispers:");
+        profile.directMessageMarkers.add(" -> me]");
+        List<ChatFormatProfile> profiles = new ArrayList<>();
+        profiles.add(profile);
+        return profiles;
+    }
+    
+    /**
+     * @return the first format profile whose server patterns match, or an empty profile
+     */
+    public ChatFormatProfile findChatFormatProfile(String serverAddress) {
+        for (ChatFormatProfile profile : chatFormatProfiles) {
+            for (String pattern : profile.servers) {
+                if (ChatClassifier.matchesServer(pattern, serverAddress)) {
+                    return profile;
+                }
+            }
+        }
+        return new ChatFormatProfile();
+    }
+    
     public static ModConfig load() {
         if (CONFIG_FILE.exists()) {
             try (FileReader reader = new FileReader(CONFIG_FILE)) {
@@ -97,11 +206,67 @@ public class ModConfig {
                 GSON.toJson(this, writer);
                 LOGGER.debug("Saved configuration to {}", CONFIG_FILE.getName());
             }
+            // Profiles are merged over the base settings, so they must be resolved again
+            resolvedProfiles.clear();
         } catch (IOException e) {
             LOGGER.error("Failed to save configuration", e);
         }
     }
     
+    /**
+     * Returns the settings to use on a server: this configuration with the first
+     * matching server profile applied. Resolved once per address and cached.
+     * @param serverAddress lowercase server address, or "singleplayer"
+     */
+    public ModConfig forServer(String serverAddress) {
+        return resolvedProfiles.computeIfAbsent(serverAddress, this::resolveProfile);
+    }
+    
+    private ModConfig resolveProfile(String serverAddress) {
+        for (Map.Entry<String, JsonObject> profile : serverProfiles.entrySet()) {
+            if (!ChatClassifier.matchesServer(profile.getKey(), serverAddress)) {
+                continue;
+            }
+            JsonObject merged = GSON.toJsonTree(this).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> override : profile.getValue().entrySet()) {
+                merged.add(override.getKey(), override.getValue());
+            }
+            merged.remove("serverProfiles");
+            try {
+                ModConfig effective = GSON.fromJson(merged, ModConfig.class);
+                effective.validate();
+                LOGGER.info("Using server profile '{}' for {}", profile.getKey(), serverAddress);
+                return effective;
+            } catch (Exception e) {
+                LOGGER.error("Invalid server profile '{}', using base settings", profile.getKey(), e);
+                return this;
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Sets one setting by its config file name, e.g. from the control socket.
+     * @throws IllegalArgumentException for unknown settings or values of the wrong type
+     */
+    public void set(String name, JsonElement value) {
+        Field field;
+        try {
+            field = ModConfig.class.getField(name);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("unknown setting '" + name + "'");
+        }
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+            throw new IllegalArgumentException("unknown setting '" + name + "'");
+        }
+        try {
+            field.set(this, GSON.fromJson(value, field.getGenericType()));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("invalid value for '" + name + "'");
+        }
+        validate();
+    }
+    
     // Validation methods
     public void validate() {
         // Ensure strings are not null or empty - set defaults if needed
@@ -115,16 +280,81 @@ public class ModConfig {
             disconnectPhrase = "afk-logout";
         }
         
+        // Drop incomplete chat rules and fill in defaults
+        if (chatRules == null) {
+            chatRules = new ArrayList<>();
+        }
+        chatRules.removeIf(rule -> rule == null || rule.pattern == null || rule.pattern.trim().isEmpty()
+            || (rule.action == RuleAction.RUN_COMMAND && (rule.command == null || rule.command.trim().isEmpty())));
+        for (ChatRule rule : chatRules) {
+            if (rule.scope == null) rule.scope = RuleScope.ANY;
+            if (rule.action == null) rule.action = RuleAction.RESPOND;
+        }
+        if (chatRules.size() > ChatMatcher.MAX_RULES) {
+            LOGGER.warn("Only the first {} of {} chat rules are used", ChatMatcher.MAX_RULES, chatRules.size());
+        }
+        
+        if (chatLanguage == null) {
+            chatLanguage = "";
+        }
+        chatLanguage = chatLanguage.trim().toLowerCase();
+        
+        // Fill in missing chat format profile lists
+        if (chatFormatProfiles == null) {
+            chatFormatProfiles = defaultChatFormatProfiles();
+        }
+        chatFormatProfiles.removeIf(profile -> profile == null);
+        for (ChatFormatProfile profile : chatFormatProfiles) {
+            if (profile.servers == null) profile.servers = new ArrayList<>();
+            if (profile.directMessageMarkers == null) profile.directMessageMarkers = new ArrayList<>();
+            if (profile.systemMarkers == null) profile.systemMarkers = new ArrayList<>();
+        }
+        
         // Validate timing parameters (ensure reasonable bounds)
         wakeUpMarginSeconds = Math.max(10, Math.min(120, wakeUpMarginSeconds));
         checkIntervalNightSeconds = Math.max(10, Math.min(300, checkIntervalNightSeconds));
         checkIntervalFailureSeconds = Math.max(30, Math.min(600, checkIntervalFailureSeconds));
         maxConsecutiveFailures = Math.max(1, Math.min(10, maxConsecutiveFailures));
         chatResponseCooldownSeconds = Math.max(10, Math.min(300, chatResponseCooldownSeconds));
+        globalResponseLimit = Math.max(1, Math.min(20, globalResponseLimit));
+        globalResponseWindowSeconds = Math.max(10, Math.min(600, globalResponseWindowSeconds));
+        chatDedupWindowSeconds = Math.max(0, Math.min(300, chatDedupWindowSeconds));
+        chatFloodThreshold = Math.max(5, Math.min(1000, chatFloodThreshold));
         sleepAttemptCooldownSeconds = Math.max(1, Math.min(30, sleepAttemptCooldownSeconds));
+        reconnectMaxAttempts = Math.max(1, Math.min(100, reconnectMaxAttempts));
+        reconnectMaxDelaySeconds = Math.max(10, Math.min(3600, reconnectMaxDelaySeconds));
+        if (reconnectFinalReasons == null) {
+            reconnectFinalReasons = new ArrayList<>();
+        }
+        reconnectFinalReasons.removeIf(reason -> reason == null || reason.trim().isEmpty());
+        controlPort = controlPort == 0 ? 0 : Math.max(1024, Math.min(65535, controlPort));
+        
+        // Validate outbound rate limits
+        chatRateLimitBurst = Math.max(1, Math.min(20, chatRateLimitBurst));
+        chatRateLimitPerMinute = Math.max(1, Math.min(120, chatRateLimitPerMinute));
+        
+        // Server addresses are matched lowercase
+        Map<String, JsonObject> profiles = new LinkedHashMap<>();
+        if (serverProfiles != null) {
+            for (Map.Entry<String, JsonObject> entry : serverProfiles.entrySet()) {
+                if (entry.getKey() == null || entry.getValue() == null) continue;
+                profiles.put(entry.getKey().toLowerCase(), entry.getValue());
+            }
+        }
+        serverProfiles = profiles;
         
         // Validate AutoEat parameters
         autoEatHungerThreshold = Math.max(1, Math.min(19, autoEatHungerThreshold));
         autoEatMinFoodValue = Math.max(1, Math.min(20, autoEatMinFoodValue));
+        
+        // Validate AFK detection and render mode parameters
+        afkIdleSeconds = Math.max(10, Math.min(3600, afkIdleSeconds));
+        // The client runs at most 10 catch-up ticks per frame, so 2 FPS is the floor for full-speed ticking
+        afkRenderMaxFps = Math.max(2, Math.min(30, afkRenderMaxFps));
+        
+        // Validate AFK resource profile parameters (vanilla option ranges)
+        afkViewDistance = Math.max(2, Math.min(32, afkViewDistance));
+        afkSimulationDistance = Math.max(5, Math.min(32, afkSimulationDistance));
+        afkEntityRadius = Math.max(4, Math.min(128, afkEntityRadius));
     }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.johnflyiii.autoafksleep;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import net.fabricmc.loader.api.FabricLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Learned sleepable window and time speed per world (server and dimension).
+ *
+ * Starts from the vanilla night (12541-23458) and adjusts it from what the
+ * server actually does: successful sleeps widen the window, repeated "you
+ * can only sleep at night" rejections narrow it (a single one may be lag or
+ * a clock jump, and a success in between cancels it), and the world clock is sampled to
+ * learn how fast time runs per client tick (day-length mods). The windows
+ * are saved when a day rolls over and on disconnect.
+ */
+public class NightWindows {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-night");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final File WINDOWS_FILE = new File(
+        FabricLoader.getInstance().getConfigDir().toFile(),
+        "autoafksleep-nightwindows.json"
+    );
+    private static final Type WINDOWS_TYPE = new TypeToken<Map<String, Window>>() {}.getType();
+
+    public static final int DAY_LENGTH = 24000;
+    private static final int SAMPLE_INTERVAL_TICKS = 200;
+    private static final double MIN_TIME_PER_TICK = 0.05; // Daylight cycle (nearly) stopped
+    private static final double MAX_TIME_PER_TICK = 20.0;
+    private static final int REJECTIONS_TO_NARROW = 2; // Rejections in a row near an edge before it moves
+
+    public static class Window {
+        public int start = 12541; // First sleepable time of day
+        public int end = 23458; // Last sleepable time of day
+        public double timePerTick = 1.0; // Time-of-day units per client tick
+        public int successes = 0;
+        public int rejections = 0;
+        public int startRejections = 0; // Rejections near the start edge since the last success
+        public int endRejections = 0; // Rejections near the end edge since the last success
+
+        boolean contains(long timeOfDay) {
+            return timeOfDay >= start && timeOfDay <= end;
+        }
+    }
+
+    private final Map<String, Window> windows;
+    private Window current = new Window();
+    private boolean dirty = false;
+
+    // Clock sampling state for the current world
+    private long sampleWorldTime = -1;
+    private int sampleTicks = 0;
+    private long lastDay = -1;
+
+    private NightWindows(Map<String, Window> windows) {
+        this.windows = windows;
+    }
+
+    public static NightWindows load() {
+        if (WINDOWS_FILE.exists()) {
+            try (FileReader reader = new FileReader(WINDOWS_FILE)) {
+                Map<String, Window> windows = GSON.fromJson(reader, WINDOWS_TYPE);
+                if (windows != null) {
+                    return new NightWindows(windows);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Failed to load learned night windows, starting fresh", e);
+            }
+        }
+        return new NightWindows(new HashMap<>());
+    }
+
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            WINDOWS_FILE.getParentFile().mkdirs();
+            try (FileWriter writer = new FileWriter(WINDOWS_FILE)) {
+                GSON.toJson(windows, WINDOWS_TYPE, writer);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            LOGGER.error("Failed to save learned night windows", e);
+        }
+    }
+
+    /**
+     * Switches to the window of a world, e.g. "play.example.net|minecraft:overworld".
+     */
+    public void select(String worldKey) {
+        current = windows.computeIfAbsent(worldKey, key -> new Window());
+        sampleWorldTime = -1;
+        lastDay = -1;
+    }
+
+    public boolean isNight(long timeOfDay) {
+        return current.contains(timeOfDay);
+    }
+
+    /**
+     * @return client ticks until the window opens, minus the margin (may be negative)
+     */
+    public int ticksUntilNight(long timeOfDay, int marginTicks) {
+        long delta = timeOfDay < current.start ? current.start - timeOfDay : DAY_LENGTH - timeOfDay + current.start;
+        return toTicks(delta) - marginTicks;
+    }
+
+    /**
+     * @return client ticks until tomorrow's window opens, minus the margin
+     */
+    public int ticksUntilNextNight(long timeOfDay, int marginTicks) {
+        return toTicks(DAY_LENGTH - timeOfDay + current.start) - marginTicks;
+    }
+
+    public void recordSuccess(long timeOfDay) {
+        current.successes++;
+        // Whatever caused earlier rejections, the window worked
+        current.startRejections = 0;
+        current.endRejections = 0;
+        if (timeOfDay < current.start) {
+            LOGGER.info("Slept at {}, night starts earlier than {} on this world", timeOfDay, current.start);
+            current.start = (int) timeOfDay;
+        } else if (timeOfDay > current.end) {
+            LOGGER.info("Slept at {}, night ends later than {} on this world", timeOfDay, current.end);
+            current.end = (int) timeOfDay;
+        }
+        dirty = true;
+    }
+
+    /**
+     * Records a "you can only sleep at night" rejection. The closer edge only
+     * moves past the rejected time once this happened {@link #REJECTIONS_TO_NARROW}
+     * times in a row without a successful sleep.
+     */
+    public void recordRejected(long timeOfDay) {
+        current.rejections++;
+        dirty = true;
+        if (!current.contains(timeOfDay)) {
+            return;
+        }
+        if (timeOfDay - current.start <= current.end - timeOfDay) {
+            if (++current.startRejections < REJECTIONS_TO_NARROW) {
+                LOGGER.info("Sleep rejected at {}, keeping night window {}-{} until it happens again", timeOfDay, current.start, current.end);
+                return;
+            }
+            current.startRejections = 0;
+            current.start = (int) Math.min(current.end, timeOfDay + 1);
+        } else {
+            if (++current.endRejections < REJECTIONS_TO_NARROW) {
+                LOGGER.info("Sleep rejected at {}, keeping night window {}-{} until it happens again", timeOfDay, current.start, current.end);
+                return;
+            }
+            current.endRejections = 0;
+            current.end = (int) Math.max(current.start, timeOfDay - 1);
+        }
+        LOGGER.info("Sleep rejected at {}, night window is now {}-{}", timeOfDay, current.start, current.end);
+    }
+
+    /**
+     * Samples the world clock once per client tick to learn the time speed and notice day rollovers.
+     */
+    public void sampleTime(long worldTime, boolean sleeping) {
+        long day = worldTime / DAY_LENGTH;
+        if (lastDay >= 0 && day != lastDay) {
+            LOGGER.debug("Day rolled over, night window {}-{}, {} time per tick",
+                current.start, current.end, String.format("%.2f", current.timePerTick));
+            save();
+        }
+        lastDay = day;
+
+        // Sleeping skips the night and /time set jumps - neither says anything about the speed
+        if (sleeping || sampleWorldTime < 0) {
+            sampleWorldTime = worldTime;
+            sampleTicks = 0;
+            return;
+        }
+        if (++sampleTicks < SAMPLE_INTERVAL_TICKS) {
+            return;
+        }
+        long delta = worldTime - sampleWorldTime;
+        if (delta >= 0 && delta <= (long) (sampleTicks * MAX_TIME_PER_TICK)) {
+            double rate = Math.max(MIN_TIME_PER_TICK, (double) delta / sampleTicks);
+            // Smooth over server lag spikes
+            current.timePerTick = current.timePerTick * 0.8 + rate * 0.2;
+            dirty = true;
+        }
+        sampleWorldTime = worldTime;
+        sampleTicks = 0;
+    }
+
+    /**
+     * Takes over a window learned by another client on the same world.
+     */
+    public void adopt(int start, int end, double timePerTick) {
+        current.start = Math.max(0, Math.min(DAY_LENGTH - 1, start));
+        current.end = Math.max(current.start, Math.min(DAY_LENGTH - 1, end));
+        current.timePerTick = Math.max(MIN_TIME_PER_TICK, Math.min(MAX_TIME_PER_TICK, timePerTick));
+        dirty = true;
+    }
+    
+    public int getStart() {
+        return current.start;
+    }
+
+    public int getEnd() {
+        return current.end;
+    }
+
+    public double getTimePerTick() {
+        return current.timePerTick;
+    }
+
+    private int toTicks(long timeOfDayDelta) {
+        return (int) Math.min(Integer.MAX_VALUE / 2, Math.round(timeOfDayDelta / current.timePerTick));
+    }
+}
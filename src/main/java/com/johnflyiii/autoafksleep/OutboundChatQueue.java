@@ -0,0 +1,170 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Single outbound path for everything the mod says or runs on the server.
+ *
+ * Messages are paced by a token bucket refilled from the client tick (no
+ * extra threads), duplicate pending messages are merged, and commands always
+ * go out ahead of chat. Both queues are bounded; when chat backs up the oldest
+ * chatter is dropped first.
+ */
+public class OutboundChatQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-outbound");
+    private static final int MAX_PENDING_PER_KIND = 16;
+
+    public enum Kind {
+        COMMAND,
+        CHAT
+    }
+
+    private static final class Entry {
+        final Kind kind;
+        final String text;
+        final int readyTick;
+        Runnable afterSend;
+
+        Entry(Kind kind, String text, int readyTick, Runnable afterSend) {
+            this.kind = kind;
+            this.text = text;
+            this.readyTick = readyTick;
+            this.afterSend = afterSend;
+        }
+    }
+
+    private final ArrayDeque<Entry> commands = new ArrayDeque<>();
+    private final ArrayDeque<Entry> chat = new ArrayDeque<>();
+    private final SentMessageFingerprints sentFingerprints = new SentMessageFingerprints();
+
+    private int tickCounter = 0;
+    private int capacity = 3;
+    private double tokensPerTick = 12 / 1200.0;
+    private double tokens = capacity;
+
+    /**
+     * @param burst bucket capacity - messages that may go out back to back
+     * @param perMinute sustained refill rate
+     */
+    public void configure(int burst, int perMinute) {
+        this.capacity = burst;
+        this.tokensPerTick = perMinute / 1200.0; // 20 ticks * 60 seconds
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+    /**
+     * Queues a message or command to be sent no earlier than delayTicks from now.
+     * @param afterSend optional callback run on the client thread right after sending
+     * @return false if an identical message was already pending or the queue was full
+     */
+    public boolean enqueue(Kind kind, String text, int delayTicks, Runnable afterSend) {
+        ArrayDeque<Entry> queue = kind == Kind.COMMAND ? commands : chat;
+
+        for (Entry pending : queue) {
+            if (pending.text.equals(text)) {
+                // Coalesce - keep the earlier slot, but don't lose a follow-up action
+                if (pending.afterSend == null) {
+                    pending.afterSend = afterSend;
+                }
+                LOGGER.debug("Merged duplicate outbound {}: {}", kind, text);
+                return false;
+            }
+        }
+
+        if (queue.size() >= MAX_PENDING_PER_KIND) {
+            if (kind == Kind.COMMAND) {
+                LOGGER.warn("Outbound command queue full, dropping: {}", text);
+                return false;
+            }
+            Entry dropped = queue.pollFirst();
+            LOGGER.warn("Outbound chat queue full, dropping oldest: {}", dropped.text);
+        }
+
+        queue.addLast(new Entry(kind, text, tickCounter + Math.max(0, delayTicks), afterSend));
+        return true;
+    }
+
+    /**
+     * Drops all pending chat (commands are kept).
+     */
+    public void clearChat() {
+        chat.clear();
+    }
+
+    public void clear() {
+        commands.clear();
+        chat.clear();
+    }
+
+    public int size() {
+        return commands.size() + chat.size();
+    }
+
+    /**
+     * @return fingerprints of chat sent in the last few seconds, for echo detection
+     */
+    public SentMessageFingerprints getSentFingerprints() {
+        return sentFingerprints;
+    }
+
+    public void tick(MinecraftClient client) {
+        tickCounter++;
+        tokens = Math.min(capacity, tokens + tokensPerTick);
+
+        if (commands.isEmpty() && chat.isEmpty()) {
+            return;
+        }
+        ClientPlayNetworkHandler handler = client.getNetworkHandler();
+        if (handler == null) {
+            return;
+        }
+
+        // Commands first, then chatter, while tokens last
+        while (tokens >= 1.0) {
+            Entry entry = pollReady(commands);
+            if (entry == null) {
+                entry = pollReady(chat);
+            }
+            if (entry == null) {
+                return;
+            }
+            tokens -= 1.0;
+            send(handler, entry);
+        }
+    }
+
+    private Entry pollReady(ArrayDeque<Entry> queue) {
+        Iterator<Entry> it = queue.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.readyTick <= tickCounter) {
+                it.remove();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void send(ClientPlayNetworkHandler handler, Entry entry) {
+        try {
+            if (entry.kind == Kind.COMMAND) {
+                // Server commands are sent without the leading slash
+                handler.sendChatCommand(entry.text.startsWith("/") ? entry.text.substring(1) : entry.text);
+            } else {
+                handler.sendChatMessage(entry.text);
+                sentFingerprints.record(entry.text, System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error sending outbound {}: ", entry.kind, e);
+        }
+        if (entry.afterSend != null) {
+            entry.afterSend.run();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.johnflyiii.autoafksleep;
+
+import java.util.Arrays;
+
+/**
+ * Counters reported by /autoafksleep perf and the dashboard. Updated from the client thread only.
+ *
+ * Everything is kept in fixed-size arrays and rings, so recording never allocates.
+ * Tick costs are raw samples; percentiles and the per-second history series are
+ * computed once per second in {@link #sampleSecond}.
+ */
+public final class PerfStats {
+    /**
+     * Measured parts of the mod. Chat is timed per message, everything else per client tick.
+     */
+    public enum Subsystem {
+        AFK_DETECTOR("AFK detector"),
+        SCHEDULER("Sleep scheduler"),
+        AUTO_EAT("AutoEat"),
+        WORLD_CLOCK("World clock"),
+        OUTBOUND("Outbound/IPC"),
+        HUD("HUD"),
+        CHAT("Chat (per message)");
+
+        private final String label;
+
+        Subsystem(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Fixed-size history of one value per second.
+     */
+    public static final class Series {
+        private final float[] values;
+        private int next = 0;
+        private int count = 0;
+
+        Series(int capacity) {
+            values = new float[capacity];
+        }
+
+        void add(float value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            count = Math.min(count + 1, values.length);
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public int capacity() {
+            return values.length;
+        }
+
+        /**
+         * @param index 0 is the oldest sample
+         */
+        public float get(int index) {
+            return values[(next - count + index + values.length) % values.length];
+        }
+
+        public float latest() {
+            return count == 0 ? 0 : get(count - 1);
+        }
+
+        public float max() {
+            float max = 0;
+            for (int i = 0; i < count; i++) {
+                max = Math.max(max, get(i));
+            }
+            return max;
+        }
+
+        void clear() {
+            next = 0;
+            count = 0;
+        }
+    }
+
+    private static final int COST_SAMPLES = 256; // About 13 seconds of ticks per subsystem
+    private static final int HISTORY_SECONDS = 120;
+    private static final int NIGHTS = 16;
+    private static final String[] CHAT_CATEGORIES = {
+        "respond", "ignored", "duplicate", "self", "system", "cooldown", "flood", "leader", "disconnect", "command", "sleep", "other"
+    };
+
+    private static long prefilterChecked = 0;
+    private static long prefilterPassed = 0;
+
+    private static final int SUBSYSTEMS = Subsystem.values().length;
+    private static final long[][] costSamples = new long[SUBSYSTEMS][COST_SAMPLES];
+    private static final int[] costNext = new int[SUBSYSTEMS];
+    private static final int[] costCount = new int[SUBSYSTEMS];
+    private static final long[][] costPercentiles = new long[SUBSYSTEMS][3]; // p50, p95, p99 in nanoseconds
+    private static final long[] costScratch = new long[COST_SAMPLES];
+    private static long secondCostNanos = 0;
+    private static int secondTicks = 0;
+
+    private static final long[] chatCategoryCounts = new long[CHAT_CATEGORIES.length];
+
+    private static final long[] nightDay = new long[NIGHTS];
+    private static final int[] nightAttempts = new int[NIGHTS];
+    private static final int[] nightSuccesses = new int[NIGHTS];
+    private static int nightCount = 0;
+
+    private static long autoEatCycles = 0;
+
+    public static final Series chatRateHistory = new Series(HISTORY_SECONDS);
+    public static final Series tickCostHistory = new Series(HISTORY_SECONDS); // Microseconds of mod time per client tick
+    public static final Series hungerHistory = new Series(HISTORY_SECONDS);
+    public static final Series foodHoursHistory = new Series(HISTORY_SECONDS);
+    private static long sampleVersion = 0;
+
+    private PerfStats() {}
+
+    public static void recordPrefilter(boolean passed) {
+        prefilterChecked++;
+        if (passed) {
+            prefilterPassed++;
+        }
+    }
+
+    public static long getPrefilterChecked() {
+        return prefilterChecked;
+    }
+
+    public static long getPrefilterPassed() {
+        return prefilterPassed;
+    }
+
+    /**
+     * @return share of checked messages that went on to full classification, 0-100
+     */
+    public static double getPrefilterHitRate() {
+        return prefilterChecked == 0 ? 0 : prefilterPassed * 100.0 / prefilterChecked;
+    }
+
+    public static void recordCost(Subsystem subsystem, long nanos) {
+        int index = subsystem.ordinal();
+        costSamples[index][costNext[index]] = nanos;
+        costNext[index] = (costNext[index] + 1) % COST_SAMPLES;
+        costCount[index] = Math.min(costCount[index] + 1, COST_SAMPLES);
+        secondCostNanos += nanos;
+    }
+
+    /**
+     * Counts one client tick for the per-tick cost history.
+     */
+    public static void recordTick() {
+        secondTicks++;
+    }
+
+    /**
+     * @param percentile 0 = p50, 1 = p95, 2 = p99, as of the last {@link #sampleSecond}
+     */
+    public static long getCostPercentile(Subsystem subsystem, int percentile) {
+        return costPercentiles[subsystem.ordinal()][percentile];
+    }
+
+    public static void recordChatCategory(String category) {
+        for (int i = 0; i < CHAT_CATEGORIES.length - 1; i++) {
+            if (CHAT_CATEGORIES[i].equals(category)) {
+                chatCategoryCounts[i]++;
+                return;
+            }
+        }
+        chatCategoryCounts[CHAT_CATEGORIES.length - 1]++;
+    }
+
+    public static int getChatCategoryCount() {
+        return CHAT_CATEGORIES.length;
+    }
+
+    public static String getChatCategory(int index) {
+        return CHAT_CATEGORIES[index];
+    }
+
+    public static long getChatCategoryTotal(int index) {
+        return chatCategoryCounts[index];
+    }
+
+    /**
+     * @param day world day (time / 24000) the attempt was made in
+     */
+    public static void recordSleepResult(long day, boolean success) {
+        int latest = (nightCount - 1 + NIGHTS) % NIGHTS;
+        if (nightCount == 0 || nightDay[latest] != day) {
+            latest = nightCount % NIGHTS;
+            nightDay[latest] = day;
+            nightAttempts[latest] = 0;
+            nightSuccesses[latest] = 0;
+            nightCount++;
+        }
+        nightAttempts[latest]++;
+        if (success) {
+            nightSuccesses[latest]++;
+        }
+    }
+
+    /**
+     * @return number of nights with sleep attempts on record (at most 16)
+     */
+    public static int getNightCount() {
+        return Math.min(nightCount, NIGHTS);
+    }
+
+    /**
+     * @param index 0 is the oldest night on record
+     */
+    public static boolean didSleepOnNight(int index) {
+        int slot = (nightCount - getNightCount() + index) % NIGHTS;
+        return nightSuccesses[slot] > 0;
+    }
+
+    public static int getNightAttempts(int index) {
+        return nightAttempts[(nightCount - getNightCount() + index) % NIGHTS];
+    }
+
+    public static void recordAutoEatCycle() {
+        autoEatCycles++;
+    }
+
+    public static long getAutoEatCycles() {
+        return autoEatCycles;
+    }
+
+    /**
+     * Closes the current second: computes the cost percentiles and appends to the history series.
+     * @param foodHours food forecast in hours, negative while unknown
+     */
+    public static void sampleSecond(int chatRate, int hunger, double foodHours) {
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            int count = costCount[i];
+            if (count == 0) {
+                continue;
+            }
+            System.arraycopy(costSamples[i], 0, costScratch, 0, count);
+            Arrays.sort(costScratch, 0, count);
+            costPercentiles[i][0] = costScratch[(count - 1) / 2];
+            costPercentiles[i][1] = costScratch[(int) ((count - 1) * 0.95)];
+            costPercentiles[i][2] = costScratch[(int) ((count - 1) * 0.99)];
+        }
+        chatRateHistory.add(chatRate);
+        tickCostHistory.add(secondTicks == 0 ? 0 : secondCostNanos / 1000f / secondTicks);
+        hungerHistory.add(hunger);
+        foodHoursHistory.add(foodHours < 0 ? 0 : (float) foodHours);
+        secondCostNanos = 0;
+        secondTicks = 0;
+        sampleVersion++;
+    }
+
+    /**
+     * @return increases with every {@link #sampleSecond}, so views know when to rebuild
+     */
+    public static long getSampleVersion() {
+        return sampleVersion;
+    }
+
+    public static void reset() {
+        prefilterChecked = 0;
+        prefilterPassed = 0;
+        Arrays.fill(costCount, 0);
+        Arrays.fill(costNext, 0);
+        for (long[] percentiles : costPercentiles) {
+            Arrays.fill(percentiles, 0);
+        }
+        Arrays.fill(chatCategoryCounts, 0);
+        nightCount = 0;
+        autoEatCycles = 0;
+        chatRateHistory.clear();
+        tickCostHistory.clear();
+        hungerHistory.clear();
+        foodHoursHistory.clear();
+        sampleVersion++;
+    }
+}
@@ -0,0 +1,68 @@
+package com.johnflyiii.autoafksleep;
+
+import java.util.Arrays;
+
+/**
+ * Remembers recently handled chat messages so repeated broadcasts and
+ * auto-announcements skip classification entirely.
+ *
+ * Keys are the Text component's hash (computed over the component tree, no
+ * string flattening) combined with the sender's id hash. The cache is a fixed
+ * ring of slots; entries older than the window are ignored and overwritten
+ * oldest first, so memory never grows.
+ */
+public class RecentMessageCache {
+    private static final int CAPACITY = 32;
+
+    private final long[] keys = new long[CAPACITY];
+    private final long[] seenAt = new long[CAPACITY];
+    private final String[] categories = new String[CAPACITY];
+    private int next = 0;
+    private long windowMs;
+    private long duplicateCount = 0;
+
+    /**
+     * @param windowSeconds how long a message counts as recent, 0 disables deduplication
+     */
+    public void configure(int windowSeconds) {
+        this.windowMs = windowSeconds * 1000L;
+    }
+
+    public static long key(int messageHash, int senderHash) {
+        return ((long) messageHash << 32) | (senderHash & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the category the message was classified as when last seen within the window, or null
+     */
+    public String lookup(long key, long now) {
+        if (windowMs <= 0) {
+            return null;
+        }
+        for (int i = 0; i < CAPACITY; i++) {
+            if (categories[i] != null && keys[i] == key && now - seenAt[i] < windowMs) {
+                duplicateCount++;
+                return categories[i];
+            }
+        }
+        return null;
+    }
+
+    public void record(long key, long now, String category) {
+        if (windowMs <= 0) {
+            return;
+        }
+        keys[next] = key;
+        seenAt[next] = now;
+        categories[next] = category;
+        next = (next + 1) % CAPACITY;
+    }
+
+    public void clear() {
+        Arrays.fill(categories, null);
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+}
@@ -0,0 +1,156 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.DisconnectedScreen;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.TitleScreen;
+import net.minecraft.client.gui.screen.multiplayer.ConnectScreen;
+import net.minecraft.client.gui.screen.multiplayer.MultiplayerScreen;
+import net.minecraft.client.network.ServerAddress;
+import net.minecraft.client.network.ServerInfo;
+import net.minecraft.text.Text;
+import net.minecraft.text.TranslatableTextContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rejoins the server after it dropped an AFK session (restart, timeout),
+ * with exponential backoff and jitter.
+ *
+ * Never reconnects after intentional disconnects - our own (disconnect phrase,
+ * no food, sleep failure action), the player quitting, or a kick, ban or
+ * duplicate login. Plugin kicks come with literal messages, so a disconnect
+ * message containing one of the configured reconnectFinalReasons counts as
+ * final too (AFK kick plugins would otherwise be fought in a loop). Reconnecting only happens from the disconnected screen, so
+ * leaving it cancels the retries. All state lives on the client thread.
+ */
+public final class ReconnectManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-reconnect");
+    private static final long BASE_DELAY_MS = 5000;
+    // Disconnect reasons that mean "don't come back"
+    private static final Set<String> FINAL_REASONS = Set.of(
+        "multiplayer.status.quitting",
+        "multiplayer.disconnect.kicked",
+        "multiplayer.disconnect.duplicate_login",
+        "multiplayer.disconnect.banned",
+        "multiplayer.disconnect.banned.reason",
+        "multiplayer.disconnect.banned_ip.reason",
+        "multiplayer.disconnect.not_whitelisted"
+    );
+
+    private static ServerInfo server = null;
+    private static boolean intentional = false;
+    private static String lostReason = null; // Message of the last connection loss, checked against the config on disconnect
+    private static boolean pending = false;
+    private static int attempt = 0;
+    private static long nextAttemptMillis = 0;
+
+    private ReconnectManager() {}
+
+    /**
+     * Called before the mod disconnects on purpose.
+     */
+    public static void markIntentionalDisconnect() {
+        intentional = true;
+        pending = false;
+    }
+
+    /**
+     * Called by the network handler mixin with the reason the connection closed.
+     */
+    public static void onConnectionLost(Text reason) {
+        if (reason != null && reason.getContent() instanceof TranslatableTextContent translatable
+                && FINAL_REASONS.contains(translatable.getKey())) {
+            LOGGER.info("Disconnected for good ({}), not reconnecting", translatable.getKey());
+            markIntentionalDisconnect();
+        }
+        lostReason = reason != null ? reason.getString().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String findFinalReason(List<String> finalReasons) {
+        if (lostReason == null) {
+            return null;
+        }
+        for (String finalReason : finalReasons) {
+            if (lostReason.contains(finalReason.toLowerCase(Locale.ROOT))) {
+                return finalReason;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param info the multiplayer server joined, or null in singleplayer
+     */
+    public static void onJoin(ServerInfo info) {
+        server = info;
+        intentional = false;
+        lostReason = null;
+        pending = false;
+        attempt = 0;
+        nextAttemptMillis = 0;
+    }
+
+    /**
+     * @return true if the session ended unexpectedly while AFK and is worth resuming
+     */
+    public static boolean onDisconnect(boolean wasAfk, ModConfig config) {
+        String finalReason = intentional ? null : findFinalReason(config.reconnectFinalReasons);
+        if (finalReason != null) {
+            LOGGER.info("Disconnect message contains '{}', not reconnecting", finalReason);
+            markIntentionalDisconnect();
+        }
+        lostReason = null;
+        boolean resumable = !intentional && wasAfk;
+        pending = resumable && config.reconnectEnabled && server != null;
+        nextAttemptMillis = 0;
+        return resumable;
+    }
+
+    public static void tick(MinecraftClient client, ModConfig config) {
+        if (!pending) {
+            return;
+        }
+        Screen screen = client.currentScreen;
+        if (screen instanceof TitleScreen || screen instanceof MultiplayerScreen) {
+            LOGGER.info("Reconnect cancelled");
+            pending = false;
+            return;
+        }
+        if (!(screen instanceof DisconnectedScreen)) {
+            return; // Still connecting or tearing down
+        }
+
+        long now = System.currentTimeMillis();
+        if (nextAttemptMillis == 0) {
+            if (attempt >= config.reconnectMaxAttempts) {
+                LOGGER.warn("Giving up reconnecting to {} after {} attempts", server.address, attempt);
+                pending = false;
+                return;
+            }
+            long delay = Math.min(config.reconnectMaxDelaySeconds * 1000L, BASE_DELAY_MS << Math.min(attempt, 16));
+            // Jitter so several clients don't hit a restarting server in lockstep
+            delay += (long) (Math.random() * delay / 4);
+            nextAttemptMillis = now + delay;
+            LOGGER.info("Reconnecting to {} in {} seconds (attempt {} of {})",
+                server.address, delay / 1000, attempt + 1, config.reconnectMaxAttempts);
+            return;
+        }
+        if (now < nextAttemptMillis) {
+            return;
+        }
+
+        nextAttemptMillis = 0;
+        attempt++;
+        ConnectScreen.connect(new MultiplayerScreen(new TitleScreen()), client,
+            ServerAddress.parse(server.address), server, false, null);
+    }
+
+    public static boolean isPending() {
+        return pending;
+    }
+}
@@ -0,0 +1,84 @@
+package com.johnflyiii.autoafksleep;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Auto-response rate limiting - a per-sender cooldown plus a global budget.
+ *
+ * Per-sender state lives in a size-bounded map kept in response-time order
+ * whose entries also expire once their cooldown has passed, so memory stays
+ * constant no matter how many players write to us. The global budget is a fixed ring of
+ * the last N response times (at most N responses per window).
+ */
+public class ResponseCooldowns {
+    private static final int MAX_TRACKED_SENDERS = 64;
+    // Server/plugin messages without a sender profile share one cooldown
+    private static final UUID UNKNOWN_SENDER = new UUID(0L, 0L);
+
+    private final Map<UUID, Long> lastResponseBySender = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+            return size() > MAX_TRACKED_SENDERS;
+        }
+    };
+
+    private long[] globalResponseTimes = new long[0];
+    private int globalIndex = 0;
+    private long senderCooldownMs;
+    private long globalWindowMs;
+
+    public void configure(int senderCooldownSeconds, int globalLimit, int globalWindowSeconds) {
+        this.senderCooldownMs = senderCooldownSeconds * 1000L;
+        this.globalWindowMs = globalWindowSeconds * 1000L;
+        if (globalResponseTimes.length != globalLimit) {
+            globalResponseTimes = new long[globalLimit];
+            globalIndex = 0;
+        }
+    }
+
+    /**
+     * Checks both budgets and, if a response is allowed, records it.
+     * @param sender sender profile id, or null for messages without one
+     * @return 0 if the response may be sent, otherwise milliseconds until it would be allowed
+     */
+    public long tryAcquire(UUID sender, long now) {
+        UUID key = sender != null ? sender : UNKNOWN_SENDER;
+        expire(now);
+
+        Long last = lastResponseBySender.get(key);
+        if (last != null && now - last < senderCooldownMs) {
+            return senderCooldownMs - (now - last);
+        }
+
+        // Oldest slot in the ring is the one we'd overwrite
+        long oldestGlobal = globalResponseTimes[globalIndex];
+        if (oldestGlobal != 0 && now - oldestGlobal < globalWindowMs) {
+            return globalWindowMs - (now - oldestGlobal);
+        }
+
+        // Re-insert so iteration order stays oldest response first
+        lastResponseBySender.remove(key);
+        lastResponseBySender.put(key, now);
+        globalResponseTimes[globalIndex] = now;
+        globalIndex = (globalIndex + 1) % globalResponseTimes.length;
+        return 0;
+    }
+
+    public int getTrackedSenderCount() {
+        return lastResponseBySender.size();
+    }
+
+    private void expire(long now) {
+        // Oldest responses come first; stop at the first one still cooling down
+        Iterator<Long> it = lastResponseBySender.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next() < senderCooldownMs) {
+                break;
+            }
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.johnflyiii.autoafksleep;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Auto-response template with live placeholders such as {timeUntilNight}.
+ *
+ * The template string is parsed once into alternating literal and placeholder
+ * segments; rendering just appends them into a caller-owned buffer, so no
+ * regex or String.format runs per message. Unknown placeholders are kept as
+ * literal text.
+ */
+public final class ResponseTemplate {
+    public enum Placeholder {
+        TIME_UNTIL_NIGHT("timeUntilNight"),
+        SLEEPING("sleeping"),
+        HUNGER("hunger"),
+        FOOD_HOURS_LEFT("foodHoursLeft"),
+        SENDER("sender");
+
+        private final String key;
+
+        Placeholder(String key) {
+            this.key = key;
+        }
+
+        private static Placeholder byKey(String key) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.key.equals(key)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Supplies the current value of a placeholder.
+     */
+    @FunctionalInterface
+    public interface Values {
+        void append(Placeholder placeholder, StringBuilder out);
+    }
+
+    // literals[i] precedes placeholders[i]; the last literal trails the last placeholder
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+
+    private ResponseTemplate(String[] literals, Placeholder[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    public static ResponseTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? template.indexOf('}', i + 1) : -1;
+            Placeholder placeholder = close > 0 ? Placeholder.byKey(template.substring(i + 1, close)) : null;
+            if (placeholder == null) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            placeholders.add(placeholder);
+            i = close + 1;
+        }
+        literals.add(literal.toString());
+
+        return new ResponseTemplate(literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+    }
+
+    /**
+     * Renders into the given buffer, replacing its contents.
+     */
+    public void render(StringBuilder out, Values values) {
+        out.setLength(0);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            values.append(placeholders[i], out);
+        }
+        out.append(literals[placeholders.length]);
+    }
+}
@@ -0,0 +1,86 @@
+package com.johnflyiii.autoafksleep;
+
+import java.util.Arrays;
+
+/**
+ * Short-lived fingerprints (hash and length) of chat we just sent, used to
+ * recognize the server echoing our own messages back.
+ *
+ * Entries live in a fixed ring and expire after a few seconds, so the set
+ * never grows. An echo is matched by its exact body when the message structure
+ * gives us one, otherwise by the message ending in a sent body behind a short
+ * envelope that names us - a player quoting our reply in their own message is
+ * not mistaken for an echo.
+ */
+public class SentMessageFingerprints {
+    private static final int CAPACITY = 16;
+    private static final long TTL_MS = 30_000;
+    // Longest "<Name> " / "[Rank] Name: " style prefix a server puts in front of our text
+    private static final int MAX_ENVELOPE_LENGTH = 64;
+
+    private final int[] hashes = new int[CAPACITY];
+    private final int[] lengths = new int[CAPACITY];
+    private final long[] expiresAt = new long[CAPACITY];
+    private int next = 0;
+
+    public void record(String text, long now) {
+        hashes[next] = text.hashCode();
+        lengths[next] = text.length();
+        expiresAt[next] = now + TTL_MS;
+        next = (next + 1) % CAPACITY;
+    }
+
+    /**
+     * @return true if the text is exactly a message we sent recently
+     */
+    public boolean matchesBody(String body, long now) {
+        int hash = body.hashCode();
+        for (int i = 0; i < CAPACITY; i++) {
+            if (expiresAt[i] > now && lengths[i] == body.length() && hashes[i] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the message is one of ours behind a short envelope containing our name
+     */
+    public boolean matchesEcho(String message, String playerName, long now) {
+        for (int i = 0; i < CAPACITY; i++) {
+            if (expiresAt[i] <= now) {
+                continue;
+            }
+            int start = message.length() - lengths[i];
+            if (start < 0 || start > MAX_ENVELOPE_LENGTH || suffixHash(message, start) != hashes[i]) {
+                continue;
+            }
+            if (playerName == null || indexOfIgnoreCase(message, playerName, start) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        Arrays.fill(expiresAt, 0L);
+    }
+
+    // Same polynomial as String.hashCode, over message[start..] without a substring
+    private static int suffixHash(String message, int start) {
+        int hash = 0;
+        for (int i = start; i < message.length(); i++) {
+            hash = 31 * hash + message.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int indexOfIgnoreCase(String text, String needle, int end) {
+        for (int i = 0; i + needle.length() <= end; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
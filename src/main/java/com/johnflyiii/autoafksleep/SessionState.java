@@ -0,0 +1,73 @@
+package com.johnflyiii.autoafksleep;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.fabricmc.loader.api.FabricLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Scheduler and AutoEat state of an AFK session that ended unexpectedly.
+ *
+ * Saved on disconnect and handed back when rejoining the same server shortly
+ * after (reconnect or client restart), so the session continues where it
+ * left off instead of rescanning for a bed and relearning the meal timing.
+ */
+public class SessionState {
+    private static final Logger LOGGER = LoggerFactory.getLogger("autoafksleep-session");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final File SESSION_FILE = new File(
+        FabricLoader.getInstance().getConfigDir().toFile(),
+        "autoafksleep-session.json"
+    );
+    private static final long MAX_AGE_MS = 30 * 60 * 1000;
+
+    public String server;
+    public String dimension;
+    public long savedAt;
+    public int consecutiveFailures;
+    public int ticksUntilNextCheck;
+    public int[] lastBedPos; // x, y, z or null
+    public AutoEat.State autoEat;
+
+    public static SessionState load() {
+        if (!SESSION_FILE.exists()) {
+            return null;
+        }
+        try (FileReader reader = new FileReader(SESSION_FILE)) {
+            return GSON.fromJson(reader, SessionState.class);
+        } catch (Exception e) {
+            LOGGER.error("Failed to load saved session", e);
+            return null;
+        }
+    }
+
+    public void save() {
+        try {
+            SESSION_FILE.getParentFile().mkdirs();
+            try (FileWriter writer = new FileWriter(SESSION_FILE)) {
+                GSON.toJson(this, writer);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to save session", e);
+        }
+    }
+
+    public static void clear() {
+        if (SESSION_FILE.exists() && !SESSION_FILE.delete()) {
+            LOGGER.warn("Failed to delete saved session");
+        }
+    }
+
+    /**
+     * @return true if this session can be resumed on the given server
+     */
+    public boolean isResumableOn(String serverKey, long now) {
+        return server != null && server.equals(serverKey) && now - savedAt >= 0 && now - savedAt <= MAX_AGE_MS;
+    }
+}
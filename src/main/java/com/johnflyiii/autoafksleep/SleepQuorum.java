@@ -0,0 +1,90 @@
+package com.johnflyiii.autoafksleep;
+
+import net.minecraft.text.Text;
+import net.minecraft.text.TranslatableTextContent;
+
+/**
+ * What the server last told us about the sleep quorum (playersSleepingPercentage),
+ * read from the vanilla "x/y players sleeping" action bar message. The server
+ * only sends it when someone enters or leaves a bed, so the state is kept
+ * for a while and then treated as unknown again.
+ */
+public class SleepQuorum {
+    private static final long STALE_MS = 60_000;
+
+    private int sleeping = 0;
+    private int required = 0;
+    private long updatedAt = 0;
+
+    /**
+     * @return true if the message was a sleep status and the quorum was updated
+     */
+    public boolean onOverlayMessage(Text message, long now) {
+        if (!(message.getContent() instanceof TranslatableTextContent translatable)) {
+            return false;
+        }
+        switch (translatable.getKey()) {
+            case "sleep.players_sleeping": {
+                Object[] args = translatable.getArgs();
+                if (args.length < 2) {
+                    return false;
+                }
+                try {
+                    sleeping = Integer.parseInt(argString(args[0]));
+                    required = Integer.parseInt(argString(args[1]));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                updatedAt = now;
+                return true;
+            }
+            case "sleep.skipping_night":
+                sleeping = Math.max(sleeping, required);
+                updatedAt = now;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public boolean isKnown(long now) {
+        return updatedAt != 0 && now - updatedAt < STALE_MS;
+    }
+
+    /**
+     * @return true if our sleeping would complete the quorum
+     */
+    public boolean wouldComplete(long now) {
+        return isKnown(now) && sleeping + 1 >= required;
+    }
+
+    /**
+     * @param onlinePlayers players in the server's player list
+     * @return true if not enough players are online to ever skip the night (percentage over 100)
+     */
+    public boolean isUnreachable(long now, int onlinePlayers) {
+        return isKnown(now) && required > onlinePlayers;
+    }
+
+    public int getSleeping() {
+        return sleeping;
+    }
+
+    public int getRequired() {
+        return required;
+    }
+
+    public long getAgeMillis(long now) {
+        return now - updatedAt;
+    }
+
+    public void reset() {
+        sleeping = 0;
+        required = 0;
+        updatedAt = 0;
+    }
+
+    private static String argString(Object arg) {
+        return arg instanceof Text text ? text.getString() : String.valueOf(arg);
+    }
+}
@@ -0,0 +1,42 @@
+package com.johnflyiii.autoafksleep;
+
+/**
+ * Tracks thunderstorms from the server's thunder gradient updates. Beds work at
+ * any time of day during a thunderstorm, so the scheduler gets one sleep
+ * attempt per storm. Updated from ClientPlayNetworkHandlerMixin on the client thread.
+ */
+public final class WeatherWatcher {
+    // Same threshold as World.isThundering()
+    private static final float THUNDER_THRESHOLD = 0.9f;
+
+    private static boolean thundering = false;
+    private static boolean stormStarted = false;
+
+    private WeatherWatcher() {}
+
+    public static void onThunderGradient(float gradient) {
+        boolean now = gradient > THUNDER_THRESHOLD;
+        if (now && !thundering) {
+            stormStarted = true;
+        }
+        thundering = now;
+    }
+
+    /**
+     * @return true once after a thunderstorm started
+     */
+    public static boolean consumeStormStart() {
+        boolean started = stormStarted;
+        stormStarted = false;
+        return started;
+    }
+
+    public static boolean isThundering() {
+        return thundering;
+    }
+
+    public static void reset() {
+        thundering = false;
+        stormStarted = false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.johnflyiii.autoafksleep.mixin;
+
+import com.johnflyiii.autoafksleep.ReconnectManager;
+import net.minecraft.client.network.ClientCommonNetworkHandler;
+import net.minecraft.network.DisconnectionInfo;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientCommonNetworkHandler.class)
+public class ClientCommonNetworkHandlerMixin {
+    // The reason decides whether a reconnect makes sense (restart vs kick or ban)
+    @Inject(method = "onDisconnected", at = @At("HEAD"))
+    private void autoafksleep$onDisconnected(DisconnectionInfo info, CallbackInfo ci) {
+        ReconnectManager.onConnectionLost(info.reason());
+    }
+}
@@ -0,0 +1,20 @@
+package com.johnflyiii.autoafksleep.mixin;
+
+import com.johnflyiii.autoafksleep.WeatherWatcher;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.packet.s2c.play.GameStateChangeS2CPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientPlayNetworkHandler.class)
+public class ClientPlayNetworkHandlerMixin {
+    // TAIL is only reached on the client thread - the network thread bails out to re-dispatch
+    @Inject(method = "onGameStateChange", at = @At("TAIL"))
+    private void autoafksleep$onGameStateChange(GameStateChangeS2CPacket packet, CallbackInfo ci) {
+        if (packet.getReason() == GameStateChangeS2CPacket.THUNDER_GRADIENT_CHANGED) {
+            WeatherWatcher.onThunderGradient(packet.getValue());
+        }
+    }
+}
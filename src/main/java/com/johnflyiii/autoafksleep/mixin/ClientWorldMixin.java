@@ -0,0 +1,20 @@
+package com.johnflyiii.autoafksleep.mixin;
+
+import com.johnflyiii.autoafksleep.AfkResourceProfile;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientWorld.class)
+public class ClientWorldMixin {
+    // Far entities keep their last position until the AFK profile is lifted
+    @Inject(method = "tickEntity", at = @At("HEAD"), cancellable = true)
+    private void autoafksleep$skipFarEntityTick(Entity entity, CallbackInfo ci) {
+        if (AfkResourceProfile.shouldSkipEntityTick(entity)) {
+            ci.cancel();
+        }
+    }
+}
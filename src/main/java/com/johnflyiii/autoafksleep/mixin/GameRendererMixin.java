@@ -0,0 +1,20 @@
+package com.johnflyiii.autoafksleep.mixin;
+
+import com.johnflyiii.autoafksleep.AfkRenderMode;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.RenderTickCounter;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(GameRenderer.class)
+public class GameRendererMixin {
+    // Skips terrain, entity and particle rendering; HUD and screens still draw
+    @Inject(method = "renderWorld", at = @At("HEAD"), cancellable = true)
+    private void autoafksleep$skipAfkWorldRendering(RenderTickCounter tickCounter, CallbackInfo ci) {
+        if (AfkRenderMode.isActive()) {
+            ci.cancel();
+        }
+    }
+}
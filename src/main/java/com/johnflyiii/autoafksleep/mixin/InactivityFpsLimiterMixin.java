@@ -0,0 +1,26 @@
+package com.johnflyiii.autoafksleep.mixin;
+
+import com.johnflyiii.autoafksleep.AfkDetector;
+import com.johnflyiii.autoafksleep.AfkRenderMode;
+import net.minecraft.client.option.InactivityFpsLimiter;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(InactivityFpsLimiter.class)
+public class InactivityFpsLimiterMixin {
+    // Keyboard and Mouse report every input event here
+    @Inject(method = "onInput", at = @At("HEAD"))
+    private void autoafksleep$onInput(CallbackInfo ci) {
+        AfkDetector.onUserInput();
+    }
+
+    @Inject(method = "update", at = @At("HEAD"), cancellable = true)
+    private void autoafksleep$capAfkFrameRate(CallbackInfoReturnable<Integer> cir) {
+        if (AfkRenderMode.isActive()) {
+            cir.setReturnValue(AfkRenderMode.getFrameRateLimit());
+        }
+    }
+}